@@ -9,6 +9,8 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import moviesapp.model.api.ApiMetrics;
+import moviesapp.viewer.images.BundledImages;
 
 import java.util.Objects;
 
@@ -26,6 +28,8 @@ public class App extends Application {
         Font.loadFont(getClass().getResourceAsStream("/viewer/fonts/SourceSansPro-Regular.otf"), 20);
         Font.loadFont(getClass().getResourceAsStream("/viewer/fonts/SourceSansPro-Semibold.otf"), 20);
 
+        BundledImages.instance.preload();
+
         Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/viewer/moviesapp.fxml")));
 
         primaryStage.setTitle("MovieLand");
@@ -39,6 +43,11 @@ public class App extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        ApiMetrics.export(ApiMetrics.METRICS_FILE_PATH);
+    }
+
     public static void main(String[] args) { launch(args); }
 
 
@@ -1,5 +1,6 @@
 package moviesapp.controller.GUI;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -12,6 +13,7 @@ import moviesapp.model.api.SearchCriteria;
 import moviesapp.model.api.TheMovieDbAPI;
 import moviesapp.model.exceptions.*;
 import moviesapp.model.movies.Favorites;
+import moviesapp.model.movies.LocalMovies;
 import moviesapp.model.movies.Movies;
 import moviesapp.viewer.buttons.ClearButton;
 import moviesapp.model.movies.Movie;
@@ -24,8 +26,9 @@ import moviesapp.viewer.right_panel.ImagePanelView;
 import moviesapp.viewer.right_panel.RightPanelView;
 
 import java.net.URL;
-import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static moviesapp.model.api.Genres.fillGENRE_NAME_ID_MAP;
 import static moviesapp.model.api.TheMovieDbAPI.*;
@@ -39,6 +42,14 @@ public class AppController implements Initializable {
     private WithoutTitlePanelView withoutTitlePanelViewComponent;
     private static ImagePanelView imagePanelViewComponent;
     private static DetailsWindow currentDetailsWindow;
+    private static final ExecutorService pageLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int PLOT_RESULTS_COUNT = 60;
+    private static int displayedResultsGeneration = 0;
+    private static boolean nextPageLoading = false;
 
     @Override
     public void initialize(URL location, ResourceBundle resourceBundle) {
@@ -67,7 +78,7 @@ public class AppController implements Initializable {
 
         withTitlePanelViewComponent = new WithTitlePanelView
                 (leftPane, appTitleButton, titleAndSearchPane, title, searchBar, yearPane, yearLabel,yearField,
-                favoritesWithTitlePane, favoritesWithTitleButton, goWithTitlePane, goWithTitleButton);
+                favoritesWithTitlePane, favoritesWithTitleButton, goWithTitlePane, goWithTitleButton, plotSearchPane, plotSearchToggle);
 
         withoutTitlePanelViewComponent = new WithoutTitlePanelView
                 (leftPane, appTitleButton, yearsPane, years, from, minYearField,
@@ -77,7 +88,8 @@ public class AppController implements Initializable {
 
         new RightPanelView(leftPane, mainAnchorPane, rightStackPane, rightScrollPane);
 
-        imagePanelViewComponent = new ImagePanelView(gridPane, rightScrollPane, specificPageField, pageManagementBox);
+        imagePanelViewComponent = new ImagePanelView(gridPane, rightScrollPane, specificPageField, pageManagementBox, infiniteScrollToggle,
+                sortComboBox);
 
         new ClearButton(clearWithTitlePane, clearWithTitleButton, leftPane, withTitlePane);
         new ClearButton(clearWithoutTitlePane, clearWithoutTitleButton, leftPane, withoutTitlePane);
@@ -104,6 +116,7 @@ public class AppController implements Initializable {
         withTitlePane.setVisible(false);
         withoutTitlePane.setVisible(true);
         clearWithTitleButton.setVisible(false);
+        withoutTitlePanelViewComponent.updateFacetCounts();
     }
 
     /**
@@ -112,6 +125,11 @@ public class AppController implements Initializable {
     @FXML
     private void searchCatcherWithTitle() {
 
+        if (withTitlePanelViewComponent.isPlotSearch()) {
+            searchCatcherByPlot();
+            return;
+        }
+
         SearchCriteria criteria = withTitlePanelViewComponent.searchCatcherWithTitle();
         boolean inputSuccess = true;
         try {
@@ -140,6 +158,23 @@ public class AppController implements Initializable {
         }
     }
 
+    /**
+     * Handles the search event by plot: the words of the search bar are searched in the plots and titles of the
+     * movies already seen, without sending any request, and the best matches are displayed.
+     */
+    private void searchCatcherByPlot() {
+
+        String words = searchBar.getText().trim();
+
+        if (words.isEmpty()) {
+            alterInput(searchBar, new NoTitleException());
+            return;
+        }
+
+        displayedResultsGeneration++;
+        imagePanelViewComponent.distributeLocalResults(LocalMovies.instance.searchPlot(words, PLOT_RESULTS_COUNT));
+    }
+
     /**
      * Modifies a TextField's appearance to indicate invalid input and displays an error alert.
      *
@@ -210,9 +245,8 @@ public class AppController implements Initializable {
      */
     @FXML
     private void favoritesWithTitleButtonClicked() {
-        updateImagePanelView(readMoviesInReverseOrder(asMovies()));
+        updateImagePanelViewWithFavorites();
         clearWithTitleButton.setVisible(true);
-        pageManagementBox.setVisible(false);
     }
 
     /**
@@ -220,21 +254,8 @@ public class AppController implements Initializable {
      */
     @FXML
     private void favoritesWithoutTitleButtonClicked() {
-        updateImagePanelView(readMoviesInReverseOrder(asMovies()));
+        updateImagePanelViewWithFavorites();
         clearWithoutTitleButton.setVisible(true);
-        pageManagementBox.setVisible(false);
-    }
-
-    private static Movies readMoviesInReverseOrder(Movies movies) {
-
-        List<Movie> movieList = movies.getMovieList();
-        Movies moviesReverseOrder = new Movies();
-
-        for (int i = movieList.size() - 1; i >= 0; i--) {
-            moviesReverseOrder.add(movieList.get(i));
-        }
-
-        return moviesReverseOrder;
     }
 
     /**
@@ -275,13 +296,89 @@ public class AppController implements Initializable {
     }
 
     /**
-     * Updates the image panel view with the provided list of movies.
+     * Updates the image panel view with the provided list of movies. If the service could not answer the search,
+     * the empty results are displayed and an alert tells the user.
      *
      * @param movies The list of movies to be displayed in the image panel view.
      */
     @FXML
     private static void updateImagePanelView(Movies movies) {
+        displayedResultsGeneration++;
         imagePanelViewComponent.distributeImages(movies);
+
+        try {
+            checkServiceAvailable();
+            prefetchNextPage();
+        }
+        catch (ServiceUnavailableException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Service Unavailable");
+            alert.setContentText(e.getMessage());
+            alert.showAndWait();
+        }
+    }
+
+    /**
+     * Retrieves the next page of results in background, then prefetches the posters the user is likely to display
+     * next, unless other results have been displayed in the meantime. The URL of the page is built before, so that
+     * the background retrieval never reads a request being replaced by a new search.
+     */
+    private static void prefetchNextPage() {
+        int generation = displayedResultsGeneration;
+        String nextPageUrl = TheMovieDbAPI.nextPageUrl();
+
+        pageLoader.execute(() -> {
+            Movies nextPageMovies = TheMovieDbAPI.prefetchPage(nextPageUrl);
+            Platform.runLater(() -> {
+                if (generation == displayedResultsGeneration) {
+                    imagePanelViewComponent.prefetchPosters(nextPageMovies);
+                }
+            });
+        });
+    }
+
+    /**
+     * Updates the image panel view with the favorite movies, from the most recently added to the oldest one.
+     */
+    private static void updateImagePanelViewWithFavorites() {
+        displayedResultsGeneration++;
+        imagePanelViewComponent.distributeFavorites(Favorites.inReverseOrder());
+    }
+
+    /**
+     * Handles the infinite scroll: when the user scrolls near the bottom of the results, the next page is retrieved
+     * in background and appended to the image panel view.
+     * Nothing is done if a page is already loading or if the last page is displayed. The URL of the page is built
+     * before, and the page only becomes the current one after, the background retrieval: the request state is never
+     * changed in background, and the page is dropped if other results have been displayed in the meantime.
+     */
+    public static void handleScrollNearBottom() {
+
+        if (nextPageLoading) {
+            return;
+        }
+
+        String nextPageUrl = TheMovieDbAPI.nextPageUrl();
+
+        if (nextPageUrl == null) {
+            return;
+        }
+
+        nextPageLoading = true;
+        int generation = displayedResultsGeneration;
+
+        pageLoader.execute(() -> {
+            String body = TheMovieDbAPI.loadPage(nextPageUrl);
+
+            Platform.runLater(() -> {
+                nextPageLoading = false;
+                if (body != null && generation == displayedResultsGeneration) {
+                    TheMovieDbAPI.showPage(nextPageUrl, body);
+                    imagePanelViewComponent.appendImages(SEARCH_READER.findAllMovies());
+                    prefetchNextPage();
+                }
+            });
+        });
     }
 
     /**
@@ -329,10 +426,14 @@ public class AppController implements Initializable {
     }
 
     /**
-     * Applies modifications to the favorites by updating the image panel view and saving changes.
+     * Applies modifications to the favorites by showing the favorites and saving changes.
+     * If the favorites are already displayed, the image panel view has already been updated by the change event of
+     * the favorites.
      */
     private static void applyFavoritesModifications() {
-        updateImagePanelView(readMoviesInReverseOrder(asMovies()));
+        if (!imagePanelViewComponent.isShowingFavorites()) {
+            updateImagePanelViewWithFavorites();
+        }
         currentDetailsWindow.globalStage.close();
         FAVORITES_WRITER.saveFavorites(asMovies());
     }
@@ -366,7 +467,9 @@ public class AppController implements Initializable {
         Favorites.clear();
         FAVORITES_WRITER.clear();
         closeClearConfirmationWindow(globalStage);
-        updateImagePanelView(Favorites.asMovies());
+        if (!imagePanelViewComponent.isShowingFavorites()) {
+            updateImagePanelViewWithFavorites();
+        }
     }
 
 
@@ -419,6 +522,11 @@ public class AppController implements Initializable {
     public Button specificPageButton;
     public TextField specificPageField;
     public HBox pageManagementBox;
+    public ToggleButton infiniteScrollToggle;
+    public HBox sortBox;
+    public ComboBox<String> sortComboBox;
+    public Pane plotSearchPane;
+    public ToggleButton plotSearchToggle;
 
     /////////////////////////////////////////////////////////// END FXML Identifiers
 }
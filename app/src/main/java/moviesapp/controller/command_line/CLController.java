@@ -1,7 +1,10 @@
 package moviesapp.controller.command_line;
 
 import moviesapp.controller.command_line.exceptions.ExitException;
+import moviesapp.model.api.ApiMetrics;
 import moviesapp.model.exceptions.*;
+import moviesapp.model.search.MovieSorter;
+import moviesapp.model.search.MovieSorter.SortKey;
 
 import java.util.*;
 
@@ -62,7 +65,7 @@ public class CLController {
                     break;
 
                 case "6":
-                    favoritesCommands.display();
+                    favoritesCommands.displayInChosenOrder();
                     break;
 
                 case "7":
@@ -84,6 +87,7 @@ public class CLController {
 
         } while (!exitRequested);
 
+        ApiMetrics.export(ApiMetrics.METRICS_FILE_PATH);
         System.exit(0);
     }
 
@@ -133,6 +137,60 @@ public class CLController {
         return valueConverted;
     }
 
+    /**
+     * Asks the user the keys to sort movies by.
+     *
+     * @return the sorter chosen by the user, or null to keep the default order.
+     */
+    protected MovieSorter askSorter() {
+        SortKey[] sortKeys = SortKey.values();
+        StringBuilder message = new StringBuilder("Sort by: [0] Default order");
+
+        for (int i = 0; i < sortKeys.length; i++) {
+            String label = sortKeys[i].getLabel();
+            message.append(", [").append(i + 1).append("] ").append(label.substring(0, 1).toUpperCase()).append(label.substring(1));
+        }
+        message.append(" | several indexes separated by spaces to break ties: ");
+
+        String answer = askValue(message.toString()).trim();
+
+        if (answer.isEmpty() || answer.equals("0")) {
+            return null;
+        }
+
+        List<SortKey> keys = new ArrayList<>();
+
+        for (String index : answer.split("\\s+")) {
+            if (!index.matches("[1-9]") || Integer.parseInt(index) > sortKeys.length || keys.contains(sortKeys[Integer.parseInt(index) - 1])) {
+                System.out.println("\n| Please enter valid sort indexes, each one at most once.");
+                return askSorter();
+            }
+            keys.add(sortKeys[Integer.parseInt(index) - 1]);
+        }
+        return new MovieSorter(keys);
+    }
+
+    /**
+     * Asks the user how many movies to display.
+     *
+     * @return the number of movies to display, {@link Integer#MAX_VALUE} to display all of them.
+     */
+    protected int askDisplayedCount() {
+        String answer = askValue("Number of movies to display [empty for all]: ").trim();
+
+        if (answer.isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+
+        try {
+            return convertAsPositiveInt(answer);
+        }
+        catch (NotAPositiveIntegerException e) {
+            System.out.println(e.getMessage());
+            return askDisplayedCount();
+        }
+    }
+
     /**
      * Tries to select a mode based on the provided message and list of option numbers.
      * Continuously attempts mode selection until successful.
@@ -4,6 +4,7 @@ import moviesapp.model.exceptions.IndexException;
 import moviesapp.model.exceptions.NoMovieFoundException;
 import moviesapp.model.movies.Favorites;
 import moviesapp.model.movies.Movies;
+import moviesapp.model.search.MovieSorter;
 
 import static moviesapp.model.json.JsonWriter.FAVORITES_WRITER;
 import static moviesapp.model.movies.Favorites.addByIndex;
@@ -13,17 +14,45 @@ import static moviesapp.model.movies.Movies.moviesFromPreviousSearch;
 public class CLFavorites {
 
     private final CLController controller;
+    private MovieSorter sorter = null;
 
     public CLFavorites(CLController controller) {
         this.controller = controller;
     }
 
     /**
-     * Displays the user's favorite movie list and returns it as Movies object.
+     * Asks the user in which order to display the favorites, and how many of them, then displays them. The order is
+     * kept for the next displays of the favorites, so that the indexes used to remove a movie or to see its details
+     * stay the same. The number of movies only applies to this listing, whose movies are the first ones of the
+     * full sorted list.
+     */
+    void displayInChosenOrder() {
+        int displayedCount = Integer.MAX_VALUE;
+
+        if (Favorites.asMovies().size() >= 2) {
+            sorter = controller.askSorter();
+            displayedCount = sorter == null ? Integer.MAX_VALUE : controller.askDisplayedCount();
+        }
+
+        Movies favorites = Favorites.asMovies();
+        if (sorter != null) {
+            favorites = new Movies(sorter.sort(favorites.getMovieList(), displayedCount));
+        }
+        System.out.print("Your favorite list:\n" + favorites);
+    }
+
+    /**
+     * Displays all the user's favorite movies, in the order last chosen by the user, and returns them as Movies
+     * object.
      */
     Movies display() {
-        System.out.print("Your favorite list:\n" + Favorites.instance);
-        return Favorites.asMovies();
+        Movies favorites = Favorites.asMovies();
+
+        if (sorter != null) {
+            favorites = new Movies(sorter.sort(favorites.getMovieList()));
+        }
+        System.out.print("Your favorite list:\n" + favorites);
+        return favorites;
     }
 
     /**
@@ -28,7 +28,7 @@ public class CLGeneral {
      */
     private void setupHelpCommandsDescription() {
         commands.add("[1] catalog: see popular movies at the moment");
-        commands.add("[2] search: show specific movies based on your criteria");
+        commands.add("[2] search: show specific movies based on your criteria or their plot");
         commands.add("[3] details: view more information about a movie from a search or favorites");
         commands.add("[4] add: add one movie to your favorite list");
         commands.add("[5] remove: remove one movie from your favorite list");
@@ -4,7 +4,9 @@ import moviesapp.model.api.Genres;
 import moviesapp.model.api.SearchCriteria;
 import moviesapp.model.api.TheMovieDbAPI;
 import moviesapp.model.exceptions.*;
+import moviesapp.model.movies.LocalMovies;
 import moviesapp.model.movies.Movies;
+import moviesapp.model.search.MovieSorter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,6 +23,7 @@ import static moviesapp.model.json.JsonReader.SEARCH_READER;
 
 public class CLSearch {
 
+    private static final int PLOT_RESULTS_COUNT = 20;
     private SearchCriteria criteria;
     private final CLController controller;
 
@@ -36,10 +39,17 @@ public class CLSearch {
     void catalog() {
 
         TheMovieDbAPI.popularMoviesFirstPage();
-        do{
-            System.out.println("The most popular movies at the moment are listed below: \n" + SEARCH_READER.findAllMovies());
 
-        } while(searchPageManagement());
+        try {
+            do{
+                TheMovieDbAPI.checkServiceAvailable();
+                System.out.println("The most popular movies at the moment are listed below: \n" + SEARCH_READER.findAllMovies());
+
+            } while(searchPageManagement());
+        }
+        catch (ServiceUnavailableException e) {
+            System.out.println(e.getMessage());
+        }
     }
 
     /**
@@ -101,12 +111,20 @@ public class CLSearch {
 
     /**
      * Initiates a search for movies.
-     * This method retrieves search criteria from the user. If the criteria are not fully provided, the search is aborted.
+     * This method asks the user whether to search by criteria or by plot. For a search by criteria, it retrieves
+     * the search criteria from the user. If the criteria are not fully provided, the search is aborted.
      * Otherwise, it launches the search using TheMovieDbAPI with the provided criteria and page number '1',
      * then prints the search results.
      */
     void search() {
 
+        String searchMode = controller.selectModeTry("Choose search mode: [1] By criteria, [2] By plot (among the movies already seen)", Arrays.asList("1","2"));
+
+        if (searchMode.equals("2")) {
+            searchPlot();
+            return;
+        }
+
         retrieveCriteriaFromUser();
 
         try {
@@ -120,6 +138,24 @@ public class CLSearch {
         printSearchResults();
     }
 
+    /**
+     * Searches the words given by the user in the plots and titles of the movies already seen, the favorites and the
+     * pages of results kept in cache, without sending any request, then prints the best matches.
+     */
+    private void searchPlot() {
+
+        String words = controller.askValue("Words of the plot: ");
+
+        try {
+            Movies movies = LocalMovies.instance.searchPlot(words, PLOT_RESULTS_COUNT);
+            Movies.searchableMovie(movies);
+            System.out.println("\nThe movies whose plot matches your words best: \n" + movies);
+        }
+        catch (NoMovieFoundException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Retrieves search criteria from the user.
      */
@@ -244,14 +280,24 @@ public class CLSearch {
     private void printSearchResults() {
 
         try {
+            TheMovieDbAPI.checkServiceAvailable();
+            Movies.searchableMovie(SEARCH_READER.findAllMovies());
+            MovieSorter sorter = controller.askSorter();
+            int displayedCount = sorter == null ? Integer.MAX_VALUE : controller.askDisplayedCount();
+
             do{
+                TheMovieDbAPI.checkServiceAvailable();
                 Movies moviesFromSearch = SEARCH_READER.findAllMovies();
                 Movies.searchableMovie(moviesFromSearch);
+
+                if (sorter != null) {
+                    moviesFromSearch = new Movies(sorter.sort(moviesFromSearch.getMovieList(), displayedCount));
+                }
                 System.out.println("\nYour list of movies found in your search: \n" + moviesFromSearch);
             }
             while(searchPageManagement());
         }
-        catch (NoMovieFoundException e) {
+        catch (NoMovieFoundException | ServiceUnavailableException e) {
             System.out.println(e.getMessage());
         }
     }
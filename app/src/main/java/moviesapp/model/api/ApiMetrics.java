@@ -0,0 +1,103 @@
+package moviesapp.model.api;
+
+import moviesapp.model.movies.Favorites;
+import okhttp3.OkHttpClient;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static moviesapp.model.json.JsonWriter.convertJsonToFile;
+
+public class ApiMetrics {
+
+    public static final String METRICS_FILE_PATH = System.getProperty("user.dir") + "/src/main/resources/json/metrics.json";
+    private static final Map<Endpoint, EndpointMetrics> endpointMetrics = new EnumMap<>(Endpoint.class);
+
+    static {
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpointMetrics.put(endpoint, new EndpointMetrics());
+        }
+    }
+
+    /**
+     * Adds the metrics interceptor and event listener to a client builder.
+     *
+     * @param builder The builder of the client to instrument.
+     * @return The same builder.
+     */
+    public static OkHttpClient.Builder instrument(OkHttpClient.Builder builder) {
+        return builder
+                .addInterceptor(new MetricsInterceptor())
+                .eventListenerFactory(MetricsEventListener.FACTORY);
+    }
+
+    /**
+     * Retrieves the metrics of an endpoint.
+     *
+     * @param endpoint The endpoint.
+     * @return The metrics of the endpoint.
+     */
+    public static EndpointMetrics get(Endpoint endpoint) {
+        return endpointMetrics.get(endpoint);
+    }
+
+    /**
+     * Retrieves the metrics of the endpoint targeted by a URL.
+     *
+     * @param url The URL of a request.
+     * @return The metrics of the endpoint, or null if the URL targets an unknown endpoint.
+     */
+    static EndpointMetrics forUrl(String url) {
+        Endpoint endpoint = Endpoint.fromUrl(url);
+        return endpoint == null ? null : get(endpoint);
+    }
+
+    /**
+     * Return a string that represents json code corresponding to the metrics of every endpoint,
+     * including the state of the circuit breakers and the statistics of the cache of the searches among the favorites.
+     * @return a string that represents json code corresponding to the metrics of every endpoint.
+     */
+    public static String toJsonFormat() {
+        StringBuilder jsonBuilder = new StringBuilder("{\n  \"endpoints\" : {\n");
+        Endpoint[] endpoints = Endpoint.values();
+
+        for (int i = 0; i < endpoints.length; i++) {
+            jsonBuilder.append("    \"").append(endpoints[i].name().toLowerCase()).append("\" : ")
+                    .append(get(endpoints[i]).toJsonFormat());
+            if (i < endpoints.length - 1) {
+                jsonBuilder.append(",");
+            }
+            jsonBuilder.append("\n");
+        }
+
+        jsonBuilder.append("  },\n  \"circuit_breakers\" : {\n");
+
+        boolean firstCircuitBreaker = true;
+
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint == Endpoint.IMAGES) {
+                continue;
+            }
+            if (!firstCircuitBreaker) {
+                jsonBuilder.append(",\n");
+            }
+            jsonBuilder.append("    \"").append(endpoint.name().toLowerCase()).append("\" : ")
+                    .append(TheMovieDbAPI.getCircuitBreaker(endpoint).toJsonFormat());
+            firstCircuitBreaker = false;
+        }
+
+        jsonBuilder.append("\n");
+        jsonBuilder.append("  },\n  \"favorites_query_cache\" : ").append(Favorites.getQueryResultCache().toJsonFormat());
+        jsonBuilder.append("\n}");
+        return jsonBuilder.toString();
+    }
+
+    /**
+     * Exports the metrics to a json file.
+     *
+     * @param filePath The path of the json file.
+     */
+    public static void export(String filePath) {
+        convertJsonToFile(toJsonFormat(), filePath);
+    }
+}
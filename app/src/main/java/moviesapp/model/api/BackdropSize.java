@@ -0,0 +1,40 @@
+package moviesapp.model.api;
+
+public enum BackdropSize {
+    W300(300),
+    W780(780),
+    W1280(1280),
+    ORIGINAL(Integer.MAX_VALUE);
+
+    private final int width;
+
+    BackdropSize(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Retrieves the smallest TMDB backdrop size at least as wide as the requested width, so the backdrop is only
+     * scaled down when it is displayed.
+     *
+     * @param requestedWidth The width at which the backdrop is displayed.
+     * @return The closest backdrop size.
+     */
+    public static BackdropSize closestTo(double requestedWidth) {
+
+        for (BackdropSize backdropSize : values()) {
+            if (backdropSize.width >= requestedWidth) {
+                return backdropSize;
+            }
+        }
+        return ORIGINAL;
+    }
+
+    /**
+     * Returns the path of the size in a TMDB image URL.
+     *
+     * @return The path of the size, for example "/w780".
+     */
+    public String getPath() {
+        return "/" + name().toLowerCase();
+    }
+}
@@ -0,0 +1,144 @@
+package moviesapp.model.api;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long probeIntervalMillis;
+    private final LongSupplier clock;
+    private final Map<State, Integer> transitionCounts = new EnumMap<>(State.class);
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+    private long rejectedCalls = 0;
+
+    public CircuitBreaker(String name, int failureThreshold, long probeIntervalMillis) {
+        this(name, failureThreshold, probeIntervalMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(String name, int failureThreshold, long probeIntervalMillis, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeIntervalMillis = probeIntervalMillis;
+        this.clock = clock;
+
+        for (State value : State.values()) {
+            transitionCounts.put(value, 0);
+        }
+    }
+
+    /**
+     * Checks if a request can be sent through the breaker.
+     * When the breaker is open, requests are rejected until the probe interval is over, then a single probe request
+     * is let through (half-open state) to check if the endpoint is reachable again.
+     *
+     * @return {@code true} if the request can be sent, {@code false} if it must fail fast.
+     */
+    public synchronized boolean allowRequest() {
+
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= probeIntervalMillis) {
+            transitionTo(State.HALF_OPEN);
+        }
+
+        boolean allowed = switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> !probeInFlight;
+            case OPEN -> false;
+        };
+
+        if (allowed && state == State.HALF_OPEN) {
+            probeInFlight = true;
+        }
+        else if (!allowed) {
+            rejectedCalls++;
+        }
+        return allowed;
+    }
+
+    /**
+     * Records a successful request and closes the breaker.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a failed request and opens the breaker if the probe failed or if the failure threshold is reached.
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        probeInFlight = false;
+
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAt = clock.getAsLong();
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        state = newState;
+        transitionCounts.merge(newState, 1, Integer::sum);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns how many times the breaker switched to the given state.
+     *
+     * @param state The state reached by the transitions.
+     * @return The number of transitions to the given state.
+     */
+    public synchronized int getTransitionCount(State state) {
+        return transitionCounts.get(state);
+    }
+
+    /**
+     * Returns the number of requests rejected without reaching the network.
+     *
+     * @return The number of rejected requests.
+     */
+    public synchronized long getRejectedCallCount() {
+        return rejectedCalls;
+    }
+
+    /**
+     * Return a string that represents json code corresponding to the breaker metrics.
+     * @return a string that represents json code corresponding to the breaker metrics.
+     */
+    public synchronized String toJsonFormat() {
+        return "{ \"state\" : \"" + state + "\"" +
+                ", \"rejected_calls\" : " + rejectedCalls +
+                ", \"to_closed\" : " + transitionCounts.get(State.CLOSED) +
+                ", \"to_open\" : " + transitionCounts.get(State.OPEN) +
+                ", \"to_half_open\" : " + transitionCounts.get(State.HALF_OPEN) + " }";
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker{" +
+                "name='" + name + '\'' +
+                ", state=" + state +
+                ", consecutiveFailures=" + consecutiveFailures +
+                ", rejectedCalls=" + rejectedCalls +
+                ", transitions=" + transitionCounts +
+                '}';
+    }
+}
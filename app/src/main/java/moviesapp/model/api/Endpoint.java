@@ -0,0 +1,31 @@
+package moviesapp.model.api;
+
+public enum Endpoint {
+    SEARCH("/search/movie"),
+    DISCOVER("/discover/movie"),
+    POPULAR("/movie/popular"),
+    GENRE_LIST("/genre/movie/list"),
+    IMAGES("image.tmdb.org/t/p");
+
+    private final String path;
+
+    Endpoint(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Retrieves the endpoint targeted by the given URL.
+     *
+     * @param url The URL of a TMDB request.
+     * @return The endpoint matching the URL, or null if the URL targets none of the known endpoints.
+     */
+    public static Endpoint fromUrl(String url) {
+
+        for (Endpoint endpoint : values()) {
+            if (url.contains(endpoint.path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
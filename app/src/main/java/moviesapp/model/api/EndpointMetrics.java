@@ -0,0 +1,87 @@
+package moviesapp.model.api;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class EndpointMetrics {
+
+    public final LatencyHistogram latency = new LatencyHistogram();
+    public final LatencyHistogram dns = new LatencyHistogram();
+    public final LatencyHistogram connect = new LatencyHistogram();
+    public final LatencyHistogram tls = new LatencyHistogram();
+    public final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+    private final Map<Integer, Long> statusCodeCounts = new TreeMap<>();
+    private long failures = 0;
+    private long responseCount = 0;
+    private long responseBytes = 0;
+
+    /**
+     * Records the status code of a response.
+     *
+     * @param code The status code of the response.
+     */
+    public synchronized void recordStatusCode(int code) {
+        statusCodeCounts.merge(code, 1L, Long::sum);
+    }
+
+    /**
+     * Records a call that failed without any response (timeout, network error, ...).
+     */
+    public synchronized void recordFailure() {
+        failures++;
+    }
+
+    /**
+     * Records the size of a response body.
+     *
+     * @param byteCount The number of bytes of the response body.
+     */
+    public synchronized void recordResponseSize(long byteCount) {
+        responseCount++;
+        responseBytes += byteCount;
+    }
+
+    public synchronized long getStatusCodeCount(int code) {
+        return statusCodeCounts.getOrDefault(code, 0L);
+    }
+
+    public synchronized long getFailureCount() {
+        return failures;
+    }
+
+    public synchronized long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public synchronized double getAverageResponseBytes() {
+        return responseCount == 0 ? 0 : responseBytes / (double) responseCount;
+    }
+
+    /**
+     * Return a string that represents json code corresponding to the metrics of the endpoint.
+     * @return a string that represents json code corresponding to the metrics of the endpoint.
+     */
+    public synchronized String toJsonFormat() {
+        StringBuilder statusCodes = new StringBuilder("{ ");
+
+        for (Map.Entry<Integer, Long> statusCodeCount : statusCodeCounts.entrySet()) {
+            if (statusCodes.length() > 2) {
+                statusCodes.append(", ");
+            }
+            statusCodes.append("\"").append(statusCodeCount.getKey()).append("\" : ").append(statusCodeCount.getValue());
+        }
+        statusCodes.append(" }");
+
+        return "{\n" +
+                "      \"latency\" : " + latency.toJsonFormat() + ",\n" +
+                "      \"dns\" : " + dns.toJsonFormat() + ",\n" +
+                "      \"connect\" : " + connect.toJsonFormat() + ",\n" +
+                "      \"tls\" : " + tls.toJsonFormat() + ",\n" +
+                "      \"time_to_first_byte\" : " + timeToFirstByte.toJsonFormat() + ",\n" +
+                "      \"status_codes\" : " + statusCodes + ",\n" +
+                "      \"failures\" : " + failures + ",\n" +
+                "      \"response_bytes\" : " + responseBytes + ",\n" +
+                "      \"average_response_bytes\" : " + getAverageResponseBytes() + "\n" +
+                "    }";
+    }
+}
@@ -0,0 +1,229 @@
+package moviesapp.model.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import moviesapp.model.json.JsonReader;
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.movies.Movies;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static moviesapp.model.api.RequestBuilder.*;
+
+public class HybridSearchPlanner {
+    public static final int DISPLAY_PAGE_SIZE = 20;
+    public static final int PAGE_BUDGET = 10;
+    static final int CONCURRENT_PAGES = 4;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ExecutorService pageFetcher = Executors.newFixedThreadPool(CONCURRENT_PAGES, runnable -> {
+        Thread thread = new Thread(runnable, "page-fetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The movies found by a search with post-filtering.
+     *
+     * @param movies The matching movies, in the order of the pages of results.
+     * @param body A response body holding the matching movies as a page of results, with a next page if there is a
+     *             continuation; null if the first page of results could not be retrieved.
+     * @param pagesFetched The number of pages of results retrieved.
+     * @param totalPages The number of pages of results of the title search.
+     * @param next Where the next display page starts in the results of the title search, null if they are all
+     *             scanned.
+     */
+    public record Result(Movies movies, String body, int pagesFetched, int totalPages, Continuation next) {
+    }
+
+    /**
+     * A position in the results of a search by title: the page of results, and the index of a movie in it.
+     *
+     * @param titlePage The page of results of the search by title, starting at 1.
+     * @param offset The index of the first movie not scanned yet in this page.
+     */
+    public record Continuation(int titlePage, int offset) {
+        public static final Continuation FIRST = new Continuation(1, 0);
+    }
+
+    private HybridSearchPlanner() {
+    }
+
+    /**
+     * Checks if a search needs post-filtering: the search by title ignores the genres, the vote average and the
+     * release date range, it only narrows the results to a single release year.
+     *
+     * @param criteria The search criteria.
+     * @return {@code true} if the criteria have a title and a criterion the search by title ignores.
+     */
+    public static boolean needsPostFiltering(SearchCriteria criteria) {
+        return !criteria.title.isEmpty()
+                && (!criteria.genreIds.isEmpty() || !criteria.minVoteAverage.isEmpty() || !criteria.minYear.equals(criteria.maxYear));
+    }
+
+    /**
+     * Searches the first display page of movies by title matching the other criteria.
+     *
+     * @see #search(SearchCriteria, int, Continuation, Function, int, int)
+     */
+    public static Result search(SearchCriteria criteria, Function<String, String> fetch, int displayPageSize, int pageBudget) {
+        return search(criteria, 1, Continuation.FIRST, fetch, displayPageSize, pageBudget);
+    }
+
+    /**
+     * Searches movies by title and keeps the ones matching the other criteria, from a position in the results of the
+     * search by title. The page of results holding this position gives the number of pages; the following ones are
+     * fetched {@link #CONCURRENT_PAGES} at a time and filtered in order, until enough movies are found or the page
+     * budget runs out. The position after the last movie scanned is returned, so that the next display page resumes
+     * from it.
+     *
+     * @param criteria The search criteria, with a title.
+     * @param displayPage The number of the display page searched, starting at 1.
+     * @param start Where the display page starts in the results of the search by title.
+     * @param fetch The retrieval of the body of a response from the URL of its request, returning null on failure.
+     * @param displayPageSize The number of movies wanted.
+     * @param pageBudget The maximum number of pages of results fetched.
+     * @return The matching movies, at most {@code displayPageSize} of them.
+     */
+    public static Result search(SearchCriteria criteria, int displayPage, Continuation start, Function<String, String> fetch,
+                                int displayPageSize, int pageBudget) {
+        MovieQuery query = MovieQuery.compile(criteria);
+        Movies movies = new Movies();
+        ArrayNode jsonMovies = objectMapper.createArrayNode();
+        JsonNode firstPage = readTree(fetch.apply(titleSearchUrl(criteria, start.titlePage())));
+
+        if (firstPage == null) {
+            return new Result(movies, null, 1, 0, null);
+        }
+
+        int totalPages = firstPage.path("total_pages").asInt(1);
+        int lastPage = Math.min(totalPages, start.titlePage() + pageBudget - 1);
+        int pagesFetched = 1;
+        int end = collectMatches(firstPage, start.offset(), query, displayPageSize, movies, jsonMovies);
+        Continuation next = end >= 0 ? after(start.titlePage(), end, firstPage, totalPages) : null;
+
+        for (int page = start.titlePage() + 1; page <= lastPage && next == null && end < 0; page += CONCURRENT_PAGES) {
+            List<Future<String>> wave = new ArrayList<>();
+
+            for (int wavePage = page; wavePage < page + CONCURRENT_PAGES && wavePage <= lastPage; wavePage++) {
+                String url = titleSearchUrl(criteria, wavePage);
+                wave.add(pageFetcher.submit(() -> fetch.apply(url)));
+            }
+            pagesFetched += wave.size();
+
+            for (int i = 0; i < wave.size() && next == null && end < 0; i++) {
+                JsonNode pageNode = readTree(waitFor(wave.get(i)));
+
+                if (pageNode == null) {
+                    next = new Continuation(page + i, 0);
+                }
+                else {
+                    end = collectMatches(pageNode, 0, query, displayPageSize, movies, jsonMovies);
+                    next = end >= 0 ? after(page + i, end, pageNode, totalPages) : null;
+                }
+            }
+            for (Future<String> pageBody : wave) {
+                pageBody.cancel(false);
+            }
+        }
+
+        if (end < 0 && next == null && lastPage < totalPages) {
+            next = new Continuation(lastPage + 1, 0);
+        }
+        return new Result(movies, pageBody(displayPage, displayPageSize, jsonMovies, next != null), pagesFetched, totalPages, next);
+    }
+
+    /**
+     * Returns the position following a movie of a page of results, null if it was the last movie of the last page.
+     */
+    private static Continuation after(int titlePage, int end, JsonNode page, int totalPages) {
+
+        if (end < page.path("results").size()) {
+            return new Continuation(titlePage, end);
+        }
+        return titlePage < totalPages ? new Continuation(titlePage + 1, 0) : null;
+    }
+
+    /**
+     * Builds the URL of a page of the search by title, narrowed to a release year when the criteria have a single
+     * one.
+     */
+    static String titleSearchUrl(SearchCriteria criteria, int page) {
+        String releaseYear = !criteria.minYear.isEmpty() && criteria.minYear.equals(criteria.maxYear)
+                ? "&primary_release_year=" + criteria.minYear
+                : "";
+
+        return baseUrl + "/search/movie?" + apiKey + language + "&query=" + criteria.title + releaseYear + "&page=" + page;
+    }
+
+    /**
+     * Adds the movies of a page matching the criteria other than the title, which the search by title has checked,
+     * from the given index of the page.
+     *
+     * @return The index following the movie that filled the display page, or -1 if it is not filled yet.
+     */
+    private static int collectMatches(JsonNode page, int offset, MovieQuery query, int displayPageSize, Movies movies, ArrayNode jsonMovies) {
+        JsonNode results = page.path("results");
+
+        for (int i = offset; i < results.size(); i++) {
+            JsonNode jsonMovie = results.get(i);
+            Movie movie = JsonReader.jsonNodeToMovie(jsonMovie);
+
+            if (query.matchesIgnoringTitle(movie)) {
+                movies.add(movie);
+                jsonMovies.add(jsonMovie);
+                if (movies.size() >= displayPageSize) {
+                    return i + 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String pageBody(int displayPage, int displayPageSize, ArrayNode jsonMovies, boolean hasNextPage) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("page", displayPage);
+        body.set("results", jsonMovies);
+        body.put("total_pages", hasNextPage ? displayPage + 1 : displayPage);
+        body.put("total_results", (displayPage - 1) * displayPageSize + jsonMovies.size());
+        return body.toString();
+    }
+
+    private static JsonNode readTree(String body) {
+
+        if (body == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readTree(body);
+        }
+        catch (IOException e) {
+            System.err.println("IOException from HybridSearchPlanner.readTree: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String waitFor(Future<String> pageBody) {
+        try {
+            return pageBody.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e) {
+            System.err.println("ExecutionException from HybridSearchPlanner.waitFor: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package moviesapp.model.api;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogram {
+
+    static final long[] BUCKET_UPPER_BOUNDS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final long[] bucketCounts = new long[BUCKET_UPPER_BOUNDS_MILLIS.length + 1];
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+
+    /**
+     * Records a duration in the histogram.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+
+        if (nanos < 0) {
+            return;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+
+        while (bucket < BUCKET_UPPER_BOUNDS_MILLIS.length && millis > BUCKET_UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+
+        bucketCounts[bucket]++;
+        count++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getAverageMillis() {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000;
+    }
+
+    public synchronized double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile, using the bucket in which it falls.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket containing the percentile in milliseconds, or the maximum recorded
+     *         duration if the percentile falls in the last bucket.
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long cumulativeCount = 0;
+
+        for (int bucket = 0; bucket < BUCKET_UPPER_BOUNDS_MILLIS.length; bucket++) {
+            cumulativeCount += bucketCounts[bucket];
+            if (cumulativeCount >= rank) {
+                return Math.min(BUCKET_UPPER_BOUNDS_MILLIS[bucket], getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Return a string that represents json code corresponding to the histogram.
+     * @return a string that represents json code corresponding to the histogram.
+     */
+    public synchronized String toJsonFormat() {
+        StringBuilder jsonBuilder = new StringBuilder("{ \"count\" : " + count +
+                ", \"average_ms\" : " + getAverageMillis() +
+                ", \"p50_ms\" : " + getPercentileMillis(50) +
+                ", \"p95_ms\" : " + getPercentileMillis(95) +
+                ", \"max_ms\" : " + getMaxMillis() +
+                ", \"buckets\" : { ");
+
+        for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+            String bucketName = bucket < BUCKET_UPPER_BOUNDS_MILLIS.length ? "le_" + BUCKET_UPPER_BOUNDS_MILLIS[bucket] : "inf";
+            jsonBuilder.append("\"").append(bucketName).append("\" : ").append(bucketCounts[bucket]);
+            if (bucket < bucketCounts.length - 1) {
+                jsonBuilder.append(", ");
+            }
+        }
+
+        jsonBuilder.append(" } }");
+        return jsonBuilder.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package moviesapp.model.api;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+class MetricsEventListener extends EventListener {
+
+    static final Factory FACTORY = call -> new MetricsEventListener(ApiMetrics.forUrl(call.request().url().toString()));
+
+    private final EndpointMetrics metrics;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestHeadersStart;
+
+    MetricsEventListener(EndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NotNull Call call, @NotNull String domainName, @NotNull List<InetAddress> inetAddressList) {
+        record(metrics == null ? null : metrics.dns, dnsStart);
+    }
+
+    @Override
+    public void connectStart(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(@NotNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+        record(metrics == null ? null : metrics.tls, secureConnectStart);
+    }
+
+    @Override
+    public void connectEnd(@NotNull Call call, @NotNull InetSocketAddress inetSocketAddress, @NotNull Proxy proxy, @Nullable Protocol protocol) {
+        record(metrics == null ? null : metrics.connect, connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(@NotNull Call call) {
+        requestHeadersStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NotNull Call call) {
+        record(metrics == null ? null : metrics.timeToFirstByte, requestHeadersStart);
+    }
+
+    @Override
+    public void responseBodyEnd(@NotNull Call call, long byteCount) {
+        if (metrics != null) {
+            metrics.recordResponseSize(byteCount);
+        }
+    }
+
+    /**
+     * Records the time elapsed since the start of a phase, if the phase really started.
+     *
+     * @param histogram The histogram of the phase.
+     * @param phaseStart The start of the phase in nanoseconds, 0 if it did not start.
+     */
+    private void record(LatencyHistogram histogram, long phaseStart) {
+        if (histogram != null && phaseStart != 0) {
+            histogram.record(System.nanoTime() - phaseStart);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package moviesapp.model.api;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+class MetricsInterceptor implements Interceptor {
+
+    /**
+     * Records the latency and the outcome (status code or failure) of every call of the client.
+     *
+     * @param chain The chain of the intercepted call.
+     * @return The response of the call.
+     * @throws IOException If the call failed.
+     */
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+
+        EndpointMetrics metrics = ApiMetrics.forUrl(chain.request().url().toString());
+        long start = System.nanoTime();
+
+        try {
+            Response response = chain.proceed(chain.request());
+            if (metrics != null) {
+                metrics.latency.record(System.nanoTime() - start);
+                metrics.recordStatusCode(response.code());
+            }
+            return response;
+        }
+        catch (IOException e) {
+            if (metrics != null) {
+                metrics.latency.record(System.nanoTime() - start);
+                metrics.recordFailure();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package moviesapp.model.api;
+
+public enum PosterSize {
+    W92(92),
+    W154(154),
+    W185(185),
+    W342(342),
+    W500(500),
+    W780(780),
+    ORIGINAL(Integer.MAX_VALUE);
+
+    private final int width;
+
+    PosterSize(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Retrieves the smallest TMDB poster size at least as wide as the requested width, so the poster is only scaled
+     * down when it is displayed.
+     *
+     * @param requestedWidth The width at which the poster is displayed.
+     * @return The closest poster size.
+     */
+    public static PosterSize closestTo(double requestedWidth) {
+
+        for (PosterSize posterSize : values()) {
+            if (posterSize.width >= requestedWidth) {
+                return posterSize;
+            }
+        }
+        return ORIGINAL;
+    }
+
+    /**
+     * Returns the path of the size in a TMDB image URL.
+     *
+     * @return The path of the size, for example "/w342".
+     */
+    public String getPath() {
+        return "/" + name().toLowerCase();
+    }
+}
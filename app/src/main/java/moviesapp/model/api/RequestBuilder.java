@@ -4,6 +4,8 @@ import moviesapp.model.exceptions.IndexException;
 import moviesapp.model.exceptions.NotAPositiveIntegerException;
 import okhttp3.Request;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,7 +21,6 @@ public class RequestBuilder {
     public static int minAcceptableYearValue = 1874;
     public static int maxAcceptableYearValue = LocalDate.now().getYear();
     public static String imageBaseURL = "https://image.tmdb.org/t/p";
-    public static String imageSize = "/w220_and_h330_face";
 
     public RequestBuilder() {
     }
@@ -156,37 +157,66 @@ public class RequestBuilder {
      * The URL should contain query parameters in the format key=value separated by '&'.
      */
     private void retrieveCriteriaFromUrl() {
+        criteria = criteriaOf(requestUrl);
+    }
 
-        Map <String, String> criteriaFromUrl = parseUrl();
+    /**
+     * Parses the criteria of a request from its URL, without changing the current criteria.
+     * The URL should contain query parameters in the format key=value separated by '&'; the missing ones are empty.
+     *
+     * @param url The URL of the request.
+     * @return The criteria of the request.
+     */
+    static SearchCriteria criteriaOf(String url) {
 
-        criteria.title = criteriaFromUrl.get("query");
+        Map <String, String> criteriaFromUrl = parseUrl(url);
+        SearchCriteria urlCriteria = new SearchCriteria();
 
-        if (criteriaFromUrl.get("primary_release_date.gte").isEmpty()) {
-            criteria.minYear = "";
-        }
-        else {
-            criteria.minYear = criteriaFromUrl.get("primary_release_date.gte").substring(0, 4);
+        urlCriteria.title = criteriaFromUrl.getOrDefault("query", "");
+
+        if (criteriaFromUrl.containsKey("primary_release_year")) {
+            urlCriteria.minYear = criteriaFromUrl.get("primary_release_year");
+            urlCriteria.maxYear = urlCriteria.minYear;
         }
-        if (criteriaFromUrl.get("primary_release_date.lte").isEmpty()) {
-            criteria.maxYear = "";
+        if (!criteriaFromUrl.getOrDefault("primary_release_date.gte", "").isEmpty()) {
+            urlCriteria.minYear = criteriaFromUrl.get("primary_release_date.gte").substring(0, 4);
         }
-        else {
-            criteria.maxYear = criteriaFromUrl.get("primary_release_date.lte").substring(0, 4);
+        if (!criteriaFromUrl.getOrDefault("primary_release_date.lte", "").isEmpty()) {
+            urlCriteria.maxYear = criteriaFromUrl.get("primary_release_date.lte").substring(0, 4);
         }
-        if (criteriaFromUrl.get("with_genres").isEmpty()) {
-            criteria.genreIds = new ArrayList<>();
+        if (!criteriaFromUrl.getOrDefault("with_genres", "").isEmpty()) {
+            urlCriteria.genreIds = Arrays.asList(criteriaFromUrl.get("with_genres").split(",\\s*"));
         }
-        else {
-            criteria.genreIds = Arrays.asList(criteriaFromUrl.get("with_genres").split(",\\s*"));
-        }
-        criteria.minVoteAverage = criteriaFromUrl.get("vote_average.gte");
-        criteria.page = criteriaFromUrl.get("page");
+        urlCriteria.minVoteAverage = criteriaFromUrl.getOrDefault("vote_average.gte", "");
+        urlCriteria.page = criteriaFromUrl.getOrDefault("page", "1");
+        return urlCriteria;
     }
 
     private static Map<String, String> parseUrl() {
-        return Stream.of(requestUrl.split("&"))
+        return parseUrl(requestUrl);
+    }
+
+    /**
+     * Splits the query parameters of a URL, decoding their values.
+     */
+    private static Map<String, String> parseUrl(String url) {
+        return Stream.of(url.split("&"))
                 .map(param -> param.split("="))
-                .collect(Collectors.toMap(param -> param[0], param -> param.length > 1 ? param[1] : ""));
+                .collect(Collectors.toMap(param -> param[0], param -> param.length > 1 ? decode(param[1]) : "",
+                        (first, second) -> second));
+    }
+
+    /**
+     * Decodes a value of a URL, which is kept as is if it was not encoded.
+     */
+    private static String decode(String value) {
+
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        }
+        catch (IllegalArgumentException e) {
+            return value;
+        }
     }
 
     /**
@@ -1,10 +1,19 @@
 package moviesapp.model.api;
 
 import moviesapp.model.exceptions.*;
+import moviesapp.model.movies.LocalMovies;
+import moviesapp.model.movies.Movies;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static moviesapp.model.api.RequestBuilder.*;
 import static moviesapp.model.exceptions.IntervalException.validateValueBetweenInterval;
@@ -13,7 +22,41 @@ import static moviesapp.model.json.JsonWriter.convertJsonToFile;
 
 public class TheMovieDbAPI {
 
-    static final OkHttpClient client = new OkHttpClient();
+    private static final String EMPTY_RESULTS_BODY = "{\"page\":1,\"results\":[],\"total_pages\":0,\"total_results\":0}";
+    private static int circuitFailureThreshold = 3;
+    private static long circuitProbeIntervalMillis = 30_000;
+    private static volatile boolean serviceUnavailable = false;
+    static final int maxCachedResponses = 50;
+    static final int maxPrefetchedResponses = 4;
+    static final OkHttpClient client = ApiMetrics.instrument(new OkHttpClient.Builder())
+            .connectTimeout(3, TimeUnit.SECONDS)
+            .readTimeout(5, TimeUnit.SECONDS)
+            .callTimeout(8, TimeUnit.SECONDS)
+            .build();
+    private static final Map<Endpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(Endpoint.class);
+    private static final Map<String, String> responseCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxCachedResponses;
+                }
+            });
+
+    private static final Map<String, String> prefetchedResponses = Collections.synchronizedMap(
+            new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxPrefetchedResponses;
+                }
+            });
+
+    private static final Map<String, List<HybridSearchPlanner.Continuation>> continuations = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<HybridSearchPlanner.Continuation>> eldest) {
+                    return size() > maxCachedResponses;
+                }
+            });
 
     public static void searchMoviesWithCriteria(SearchCriteria criteria) throws SelectModeException {
 
@@ -23,6 +66,9 @@ public class TheMovieDbAPI {
         else if (criteria.title.isEmpty()) {
             buildRequestToSearchMovies(criteria, 2);
         }
+        else if (HybridSearchPlanner.needsPostFiltering(criteria)) {
+            searchMoviesWithPostFiltering(criteria);
+        }
         else {
             buildRequestToSearchMovies(criteria, 1);
         }
@@ -61,7 +107,14 @@ public class TheMovieDbAPI {
      */
     public static void searchMoviesWithUrl(String requestUrl) {
 
-        searchMovies(new RequestBuilder().build(requestUrl));
+        Request request = new RequestBuilder().build(requestUrl);
+
+        if (isPostFiltered(requestUrl)) {
+            showPostFilteredPage(request.url().toString());
+        }
+        else {
+            searchMovies(request);
+        }
     }
 
     /**
@@ -99,50 +152,321 @@ public class TheMovieDbAPI {
         }
     }
 
+    /**
+     * Searches for movies by title, then keeps the ones matching the criteria the search by title ignores (genres,
+     * vote average and release date range). The matching movies are saved as the first page of results.
+     *
+     * @param criteria The search criteria, with a title.
+     */
+    private static void searchMoviesWithPostFiltering(SearchCriteria criteria) {
+
+        RequestBuilder requestBuilder = new RequestBuilder(criteria);
+
+        try {
+            showPostFilteredPage(requestBuilder.build(1).url().toString());
+        }
+        catch (IndexException e) {
+            System.err.println(e.getMessage() + e.specifySearchModeError());
+        }
+    }
+
+    /**
+     * Checks if the request of a URL is a search by title whose results are post-filtered.
+     *
+     * @param url The URL of the request.
+     * @return {@code true} if the results of the request are computed by {@link #postFilteredBody(String)}.
+     */
+    private static boolean isPostFiltered(String url) {
+        return url.contains("/search/movie?") && HybridSearchPlanner.needsPostFiltering(RequestBuilder.criteriaOf(url));
+    }
+
+    /**
+     * Makes a page of a search with post-filtering the current page of results. If it cannot be computed, the last
+     * response kept for its URL is used, or the results are cleared and {@link #checkServiceAvailable()} reports
+     * it: the unfiltered results of the search by title are never shown instead.
+     * The pages of the search by title are retrieved without holding the lock of the other requests; it is only
+     * taken to save the results.
+     *
+     * @param url The URL of the page.
+     */
+    private static void showPostFilteredPage(String url) {
+
+        String body = prefetchedResponses.remove(url);
+
+        if (body == null) {
+            body = postFilteredBody(url);
+        }
+
+        synchronized (TheMovieDbAPI.class) {
+            serviceUnavailable = false;
+
+            if (body == null) {
+                serveFromCache(url);
+                return;
+            }
+            responseCache.put(url, body);
+            saveResponseBody(body);
+        }
+    }
+
+    /**
+     * Computes a page of results of a search with post-filtering. Each display page starts where the previous one
+     * stopped in the results of the search by title: the positions found are kept per search, and a page whose
+     * start is not known yet is reached by computing the pages before it.
+     *
+     * @param url The URL of the page, whose page parameter is the display page.
+     * @return The body of the page of results, or null if it cannot be computed or is past the last page.
+     */
+    private static String postFilteredBody(String url) {
+
+        SearchCriteria criteria = RequestBuilder.criteriaOf(url);
+        int displayPage;
+
+        try {
+            displayPage = Math.max(1, convertAsPositiveInt(criteria.page));
+        }
+        catch (NotAPositiveIntegerException e) {
+            displayPage = 1;
+        }
+
+        List<HybridSearchPlanner.Continuation> starts = continuations.computeIfAbsent(url.replaceFirst("&page=\\d*$", ""),
+                key -> Collections.synchronizedList(new ArrayList<>(List.of(HybridSearchPlanner.Continuation.FIRST))));
+        int page = Math.min(displayPage, starts.size());
+        HybridSearchPlanner.Continuation start = starts.get(page - 1);
+
+        while (true) {
+            HybridSearchPlanner.Result result = HybridSearchPlanner.search(criteria, page, start, TheMovieDbAPI::fetchPage,
+                    HybridSearchPlanner.DISPLAY_PAGE_SIZE, HybridSearchPlanner.PAGE_BUDGET);
+
+            if (result.body() == null) {
+                return null;
+            }
+            synchronized (starts) {
+                if (result.next() != null && starts.size() == page) {
+                    starts.add(result.next());
+                }
+            }
+            if (page == displayPage) {
+                return result.body();
+            }
+            if (result.next() == null) {
+                return null;
+            }
+            start = result.next();
+            page++;
+        }
+    }
+
+    /**
+     * Retrieves a page of results for the search with post-filtering, or the last response received for its URL
+     * if the request fails. The movies of the page are added to the local movies.
+     *
+     * @param url The URL of the request of the page.
+     * @return The body of the response, or null if there is none.
+     */
+    private static String fetchPage(String url) {
+        url = new Request.Builder().url(url).build().url().toString();
+        String body = fetchBody(url);
+
+        if (body != null) {
+            responseCache.put(url, body);
+        }
+        else {
+            body = responseCache.get(url);
+        }
+        if (body != null) {
+            cacheLocalMovies(url, moviesFromJson(body));
+        }
+        return body;
+    }
+
     /**
      * Searches for movies using the provided request.
+     * The request goes through the circuit breaker of its endpoint: while the breaker is open, the request fails fast
+     * and the last response received for the same URL is used instead. If there is none, the results are cleared
+     * and {@link #checkServiceAvailable()} reports it.
+     * Requests are sent one at a time, so that a page loaded in background never interleaves with the search
+     * results file being written by another request.
      *
      * @param request The request for searching movies.
      */
-    private static void searchMovies(Request request) {
+    private static synchronized void searchMovies(Request request) {
 
-        try {
-            Response response = client.newCall(request).execute();
-            reactToRequestResponse(response);
+        String url = request.url().toString();
+        serviceUnavailable = false;
+        String prefetchedBody = prefetchedResponses.remove(url);
+
+        if (prefetchedBody != null) {
+            responseCache.put(url, prefetchedBody);
+            saveResponseBody(prefetchedBody);
+            cacheLocalMovies(url, SEARCH_READER.findAllMovies());
+            return;
+        }
+
+        CircuitBreaker circuitBreaker = getCircuitBreaker(Endpoint.fromUrl(url));
+
+        if (!circuitBreaker.allowRequest()) {
+            serveFromCache(url);
+            return;
+        }
+
+        try (Response response = client.newCall(request).execute()) {
+            if (isServerFailure(response.code())) {
+                circuitBreaker.recordFailure();
+            }
+            else {
+                circuitBreaker.recordSuccess();
+            }
+            reactToRequestResponse(response, url);
         }
         catch(IOException e){
+            circuitBreaker.recordFailure();
             System.err.println("IOException e from \"Response response = client.newCall(request).execute();\" ");
+            serveFromCache(url);
         }
     }
 
+    /**
+     * Checks if a response code means that the endpoint is failing (server error or rate limiting).
+     *
+     * @param code The code of the response.
+     * @return {@code true} if the code must be counted as a failure by the circuit breaker, {@code false} otherwise.
+     */
+    private static boolean isServerFailure(int code) {
+        return code >= 500 || code == 429;
+    }
+
     /**
      * Reacts to the response of a request.
-     * If the response is successful and contains a body, it saves the body content to a file.
+     * If the response is successful and contains a body, it saves the body content to a file and caches it.
      * If the response is not successful, it prints an error message with the response code.
      *
      * @param response The response of the request.
+     * @param url The URL of the request.
      */
-    private static void reactToRequestResponse(Response response) {
-
-        String filePath = SEARCH_FILE_PATH;
-
-        if (criteriaToUrl.get("searchMode").equals("/genre/movie/list?")) {
-            filePath = GENRES_FILE_PATH;
-        }
+    private static void reactToRequestResponse(Response response, String url) {
 
         try{
             if(response.isSuccessful() && response.body() != null){
-                convertJsonToFile(response.body().string(), filePath);
-                SEARCH_READER = updateSearchReader();
+                String body = response.body().string();
+                responseCache.put(url, body);
+                saveResponseBody(body);
+                cacheLocalMovies(url, SEARCH_READER.findAllMovies());
             }
             else{
                 System.err.println("Error API request: " + response.code());
+
+                if (isServerFailure(response.code())) {
+                    serveFromCache(url);
+                }
             }
         } catch (IOException e){
             System.err.println("IOException e from \"String searchResult = response.body().string();\"");
         }
     }
 
+    /**
+     * Uses the last response received for the given URL, if there is one. Otherwise, the results of the previous
+     * request are replaced by an empty page of results, so that they are not taken for the answer to this one, and
+     * the service is marked as unavailable. The genres are kept, as there is no other way to get them.
+     *
+     * @param url The URL of the request that could not be sent.
+     */
+    private static void serveFromCache(String url) {
+
+        String cachedBody = responseCache.get(url);
+
+        if (cachedBody != null) {
+            saveResponseBody(cachedBody);
+            return;
+        }
+
+        serviceUnavailable = true;
+        if (Endpoint.fromUrl(url) != Endpoint.GENRE_LIST) {
+            saveResponseBody(EMPTY_RESULTS_BODY);
+        }
+    }
+
+    /**
+     * Checks if the last search was answered, by the service or by the last response received for its URL.
+     *
+     * @throws ServiceUnavailableException If the service could not be reached and no response was cached, in which
+     *                                     case the results are empty.
+     */
+    public static void checkServiceAvailable() throws ServiceUnavailableException {
+
+        if (serviceUnavailable) {
+            throw new ServiceUnavailableException();
+        }
+    }
+
+    /**
+     * Saves the body of a response to the json file matching the current search mode and updates the search reader.
+     *
+     * @param body The body of the response.
+     */
+    private static void saveResponseBody(String body) {
+
+        String filePath = SEARCH_FILE_PATH;
+
+        if (criteriaToUrl.get("searchMode").equals("/genre/movie/list?")) {
+            filePath = GENRES_FILE_PATH;
+        }
+
+        convertJsonToFile(body, filePath);
+        SEARCH_READER = updateSearchReader();
+    }
+
+    /**
+     * Retrieves the circuit breaker of an endpoint, creating it if needed.
+     *
+     * @param endpoint The endpoint protected by the circuit breaker.
+     * @return The circuit breaker of the endpoint.
+     */
+    public static CircuitBreaker getCircuitBreaker(Endpoint endpoint) {
+
+        if (endpoint == null) {
+            endpoint = Endpoint.SEARCH;
+        }
+
+        synchronized (circuitBreakers) {
+            return circuitBreakers.computeIfAbsent(endpoint,
+                    key -> new CircuitBreaker(key.name(), circuitFailureThreshold, circuitProbeIntervalMillis));
+        }
+    }
+
+    /**
+     * Changes the settings of the circuit breakers, for tests. The existing breakers are reset.
+     *
+     * @param failureThreshold The number of consecutive failures opening a breaker.
+     * @param probeIntervalMillis The time during which an open breaker rejects requests before sending a probe.
+     */
+    static void configureCircuitBreakers(int failureThreshold, long probeIntervalMillis) {
+
+        synchronized (circuitBreakers) {
+            circuitFailureThreshold = failureThreshold;
+            circuitProbeIntervalMillis = probeIntervalMillis;
+            circuitBreakers.clear();
+        }
+    }
+
+    /**
+     * Returns the state and the transition counts of every circuit breaker created so far.
+     *
+     * @return The circuit breakers metrics.
+     */
+    public static String circuitBreakersMetrics() {
+
+        StringBuilder metrics = new StringBuilder();
+
+        synchronized (circuitBreakers) {
+            for (CircuitBreaker circuitBreaker : circuitBreakers.values()) {
+                metrics.append(circuitBreaker).append("\n");
+            }
+        }
+        return metrics.toString();
+    }
+
     /**
      * Retrieves the first page of popular movies in json.
      */
@@ -206,6 +530,119 @@ public class TheMovieDbAPI {
         }
     }
 
+    /**
+     * Builds the URL of the page following the current page of results. It must be called on the thread starting
+     * the searches, so that the URL is not read while a new search replaces it; the page can then be retrieved in
+     * background with {@link #loadPage(String)}.
+     *
+     * @return The URL of the next page, or null if the current page is the last one.
+     */
+    public static String nextPageUrl() {
+
+        try {
+            int currentPage = getCurrentPage();
+
+            if (requestUrl == null || currentPage >= SEARCH_READER.numberOfPagesOfMoviesInJson()) {
+                return null;
+            }
+            return new Request.Builder().url(updateRequestUrlPage(String.valueOf(currentPage + 1))).build().url().toString();
+        }
+        catch (NotAPositiveIntegerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves a page of results without changing the current results, so that it can be called in background.
+     * The response is kept so that switching to this page does not send the request again, and the movies of the
+     * page are added to the local movies.
+     *
+     * @param url The URL of the page, as returned by {@link #nextPageUrl()}.
+     * @return The body of the response, or null if the request is rejected or fails.
+     */
+    public static String loadPage(String url) {
+        String body = prefetchedResponses.get(url);
+
+        if (body == null) {
+            body = isPostFiltered(url) ? postFilteredBody(url) : fetchBody(url);
+        }
+        if (body != null) {
+            prefetchedResponses.put(url, body);
+            cacheLocalMovies(url, moviesFromJson(body));
+        }
+        return body;
+    }
+
+    /**
+     * Makes a page retrieved with {@link #loadPage(String)} the current page of results. It must be called on the
+     * thread starting the searches, once it is checked that no other search was started since the URL was built.
+     *
+     * @param url The URL of the page.
+     * @param body The body of the response.
+     */
+    public static synchronized void showPage(String url, String body) {
+        new RequestBuilder().build(url);
+        prefetchedResponses.remove(url);
+        responseCache.put(url, body);
+        serviceUnavailable = false;
+        saveResponseBody(body);
+    }
+
+    /**
+     * Retrieves a page of results in background, without changing the current results. The response is kept so
+     * that switching to this page does not send the request again.
+     *
+     * @param url The URL of the page, as returned by {@link #nextPageUrl()} on the thread starting the searches.
+     * @return The movies of the page, or an empty Movies object if there is no page or if the request fails.
+     */
+    public static Movies prefetchPage(String url) {
+        String body = url == null ? null : loadPage(url);
+        return body == null ? new Movies() : moviesFromJson(body);
+    }
+
+    /**
+     * Adds the movies of a cached page of results to the local movies, so that they can be searched without
+     * sending a request.
+     *
+     * @param url The URL of the request of the page.
+     * @param movies The movies of the page.
+     */
+    private static void cacheLocalMovies(String url, Movies movies) {
+
+        if (Endpoint.fromUrl(url) != Endpoint.GENRE_LIST) {
+            LocalMovies.instance.cachePage(url, movies);
+        }
+    }
+
+    /**
+     * Sends a request through the circuit breaker of its endpoint and returns the body of the response.
+     *
+     * @param url The URL of the request.
+     * @return The body of the response, or null if the request is rejected or fails.
+     */
+    private static String fetchBody(String url) {
+        CircuitBreaker circuitBreaker = getCircuitBreaker(Endpoint.fromUrl(url));
+
+        if (!circuitBreaker.allowRequest()) {
+            return null;
+        }
+
+        try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+            if (isServerFailure(response.code())) {
+                circuitBreaker.recordFailure();
+            }
+            else {
+                circuitBreaker.recordSuccess();
+            }
+            return response.isSuccessful() && response.body() != null ? response.body().string() : null;
+        }
+        catch (IOException e) {
+            circuitBreaker.recordFailure();
+            System.err.println("IOException from TheMovieDbAPI.fetchBody: " + e.getMessage());
+            return null;
+        }
+    }
+
     private static void switchPage(String pageNumber) {
         searchMoviesWithUrl(updateRequestUrlPage(pageNumber));
     }
@@ -0,0 +1,8 @@
+package moviesapp.model.exceptions;
+
+public class ServiceUnavailableException extends Exception {
+
+    public ServiceUnavailableException() {
+        super("\n| The movie service is unavailable, please try again later.");
+    }
+}
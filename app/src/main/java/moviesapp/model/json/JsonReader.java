@@ -1,12 +1,16 @@
 package moviesapp.model.json;
 import com.fasterxml.jackson.databind.*;
-import moviesapp.model.api.Genres;
 import moviesapp.model.movies.Movie;
 import moviesapp.model.movies.MovieFinder;
+import moviesapp.model.movies.MoviePool;
+import moviesapp.model.movies.MovieQuery;
 import moviesapp.model.movies.Movies;
+import moviesapp.model.search.ParallelFilter;
+import moviesapp.model.search.ReleaseDateIndex;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.List;
 import java.io.BufferedReader;
@@ -17,6 +21,7 @@ public class JsonReader extends MovieFinder {
     private final ObjectMapper objectMapper;
     private final JsonNode jsonMovies ;
     private final JsonNode jsonGenres;
+    private ReleaseDateIndex releaseDateIndex;
     public static final String SEARCH_FILE_PATH = System.getProperty("user.dir") + "/src/main/resources/json/search.json";
     public final static String FAVORITES_FILE_PATH = System.getProperty("user.dir")+"/src/main/resources/json/favorites.json";
     public final static String GENRES_FILE_PATH = System.getProperty("user.dir") + "/src/main/resources/json/genres.json";
@@ -50,12 +55,12 @@ public class JsonReader extends MovieFinder {
 
 
     /**
-     * Convert a jsonNode to a Movie
+     * Convert a jsonNode to a Movie, shared with the other readers through the {@link MoviePool}
      * @param jsonNode: the jsonNode to convert to a movie
      * @return the jsonNode converted to a movie
      */
-    private Movie jsonNodeToMovie(JsonNode jsonNode) {
-        return new Movie(
+    public static Movie jsonNodeToMovie(JsonNode jsonNode) {
+        return MoviePool.instance.canonical(new Movie(
                 jsonNode.get("adult").asBoolean(),
                 escapeQuotes(jsonNode.get("backdrop_path").asText()),
                 getGenresFromJson(jsonNode),
@@ -70,7 +75,7 @@ public class JsonReader extends MovieFinder {
                 jsonNode.get("video").asBoolean(),
                 jsonNode.get("vote_average").asDouble(),
                 jsonNode.get("vote_count").asInt()
-        );
+        ));
     }
 
     /**
@@ -78,7 +83,7 @@ public class JsonReader extends MovieFinder {
      * @param input the string in which to escape double quotes
      * @return the string with escaped double quotes
      */
-    private String escapeQuotes(String input) {
+    private static String escapeQuotes(String input) {
         return input.replaceAll("\"", "\\\\\"");
     }
 
@@ -87,7 +92,7 @@ public class JsonReader extends MovieFinder {
      * @param jsonNode to browse
      * @return the list of genre identifiers
      */
-    private List<String> getGenresFromJson(JsonNode jsonNode){
+    private static List<String> getGenresFromJson(JsonNode jsonNode){
         JsonNode jsonGenreIds = jsonNode.get("genre_ids");
         List<String> genreIds = new ArrayList<>();
 
@@ -97,42 +102,79 @@ public class JsonReader extends MovieFinder {
         return genreIds;
     }
 
+    /**
+     * Adds the movies of the file matching a query. When the query has a range of years, only the movies released
+     * in it are checked against the other criteria.
+     *
+     * @param movies is a list of movies to which we add the new movie(s) to the list
+     * @param query the compiled search criteria
+     */
     @Override
-    public void findMoviesByCriteria(Movies movies, String title, String releaseYear, List<String> genres, String minVoteAverage) {
-        for (JsonNode movie : jsonMovies) {
-            boolean titleCondition = title == null ||
-                    title.isEmpty() ||
-                    movie.get("original_title").asText().toLowerCase().contains(title.toLowerCase());
-            boolean yearCondition = releaseYear == null ||
-                    releaseYear.isEmpty() ||
-                    movie.get("release_date").asText().startsWith(releaseYear);
-            boolean genreCondition =
-                    genres == null ||
-                            genres.isEmpty() ||
-                            movieContainsAnyGenre(movie, genres);
-            boolean voteCondition =
-                    minVoteAverage == null ||
-                            minVoteAverage.isEmpty() ||
-                            Double.parseDouble(minVoteAverage) <= movie.get("vote_average").asDouble();
-
-            if (titleCondition && yearCondition && genreCondition && voteCondition) {
-                movies.add(jsonNodeToMovie(movie));
+    public void findMoviesByQuery(Movies movies, MovieQuery query) {
+        if (jsonMovies == null) {
+            return;
+        }
+
+        int[] candidates = query.hasYearRange() ? releaseDateIndex().documentsInYears(query.getMinYear(), query.getMaxYear()) : null;
+        List<JsonNode> jsonMovieList = new AbstractList<>() {
+            @Override
+            public JsonNode get(int index) {
+                return jsonMovies.get(candidates == null ? index : candidates[index]);
             }
+
+            @Override
+            public int size() {
+                return candidates == null ? jsonMovies.size() : candidates.length;
+            }
+        };
+
+        for (Movie movie : ParallelFilter.filter(jsonMovieList, movie -> matches(movie, query), JsonReader::jsonNodeToMovie)) {
+            movies.add(movie);
         }
     }
 
     /**
-     * Checks if the given movie matches any of the provided genre IDs.
+     * Returns the index of the release dates of the movies of the file, built the first time it is needed.
+     * @return the release date index, whose document numbers are the positions of the movies in the file
+     */
+    private synchronized ReleaseDateIndex releaseDateIndex() {
+        if (releaseDateIndex == null) {
+            String[] releaseDates = new String[jsonMovies.size()];
+
+            for (int i = 0; i < releaseDates.length; i++) {
+                releaseDates[i] = jsonMovies.get(i).path("release_date").asText();
+            }
+            releaseDateIndex = ReleaseDateIndex.of(releaseDates);
+        }
+        return releaseDateIndex;
+    }
+
+    /**
+     * Checks if the given movie matches every criterion of the query.
+     * @param movie The JSON node representing the movie.
+     * @param query The compiled query.
+     * @return {@code true} if the movie matches the query, {@code false} otherwise.
+     */
+    private static boolean matches(JsonNode movie, MovieQuery query) {
+        return query.matchesTitle(movie.path("title").asText(), movie.get("original_title").asText())
+                && query.matchesReleaseDate(movie.get("release_date").asText())
+                && query.matchesVoteAverage(movie.get("vote_average").asDouble())
+                && movieContainsAnyGenre(movie, query);
+    }
+
+    /**
+     * Checks if the given movie matches any of the genres of the query.
      * @param movie The JSON node representing the movie.
-     * @param genres The list of genre to match against.
-     * @return {@code true} if the movie matches any of the provided genre IDs, {@code false} otherwise.
+     * @param query The compiled query.
+     * @return {@code true} if the query has no genre or if the movie matches any of them, {@code false} otherwise.
      */
-    private boolean movieContainsAnyGenre(JsonNode movie, List<String> genres) {
-        List<String> genreIds = Genres.genresToGenreIds(genres);
+    private static boolean movieContainsAnyGenre(JsonNode movie, MovieQuery query) {
+        if (!query.hasGenres()) {
+            return true;
+        }
 
         for (JsonNode genreIdNode : movie.get("genre_ids")) {
-            String genreId = genreIdNode.asText();
-            if (genreIds.contains(genreId)) {
+            if (query.matchesGenre(genreIdNode.asInt(-1))) {
                 return true;
             }
         }
@@ -156,6 +198,30 @@ public class JsonReader extends MovieFinder {
         return movieList;
     }
 
+    /**
+     * Converts the results of a TMDB response body to movies, without writing the body to a file.
+     *
+     * @param json the body of a TMDB response
+     * @return a Movies object containing the movies of the response,
+     *         or an empty Movies object if the body cannot be read or contains no results
+     */
+    public static Movies moviesFromJson(String json) {
+        Movies movieList = new Movies();
+
+        try {
+            JsonNode jsonMovies = new ObjectMapper().readTree(json).get("results");
+            if (jsonMovies != null) {
+                for (JsonNode jsonMovie : jsonMovies) {
+                    movieList.add(jsonNodeToMovie(jsonMovie));
+                }
+            }
+        }
+        catch (IOException e) {
+            System.err.println("IOException: objectMapper.readTree(json) exception" + e.getMessage());
+        }
+        return movieList;
+    }
+
     /**
      * Return the origin jsonNode from our default jsonFile with exception management
      * @return the origin jsonNode from our default jsonFile
@@ -0,0 +1,469 @@
+package moviesapp.model.movies;
+
+import moviesapp.model.search.MovieSorter.SortKey;
+import moviesapp.model.search.ReleaseDateIndex;
+import moviesapp.model.search.TextNormalizer;
+
+import java.util.*;
+
+/**
+ * Movies stored by column, one row per movie: the values filtered and sorted on are primitive arrays (release date as
+ * an epoch day, vote average, popularity, vote count, genres as a bit set over a dictionary of at most 64 genres), the
+ * original language and the list of genres are codes in dictionaries, and the texts are kept for display only.
+ * Filtering and sorting work on row numbers, and {@link Movie} objects are only created for the rows returned, as
+ * their shared instances from the {@link MoviePool}.
+ * {@link LocalMovies} keeps its movies in this store.
+ */
+public class ColumnarMovies extends MovieFinder {
+    public static final int UNKNOWN_DATE = ReleaseDateIndex.UNKNOWN_DATE;
+    static final int MAX_GENRES = Long.SIZE;
+
+    private final Map<String, Integer> genreBitById = new HashMap<>();
+    private final int[] genreIdByBit = new int[MAX_GENRES];
+    private int genreBitCount = 0;
+    private final Map<String, Short> languageCodes = new HashMap<>();
+    private final List<String> languages = new ArrayList<>();
+    private final Map<List<String>, Integer> genreListCodes = new HashMap<>();
+    private final List<List<String>> genreLists = new ArrayList<>();
+    private int size = 0;
+
+    private int[] releaseEpochDays = new int[16];
+    private double[] voteAverages = new double[16];
+    private double[] popularities = new double[16];
+    private int[] voteCounts = new int[16];
+    private long[] genreBits = new long[16];
+    private int[] genreListIndexes = new int[16];
+    private short[] languageIndexes = new short[16];
+    private byte[] flags = new byte[16];
+    private String[] ids = new String[16];
+    private String[] titles = new String[16];
+    private String[] sortTitles = new String[16];
+    private String[] originalTitles = new String[16];
+    private String[] releaseDates = new String[16];
+    private String[] overviews = new String[16];
+    private String[] posterPaths = new String[16];
+    private String[] backdropPaths = new String[16];
+
+    public static ColumnarMovies of(Iterable<Movie> movies) {
+        ColumnarMovies columnarMovies = new ColumnarMovies();
+
+        for (Movie movie : movies) {
+            columnarMovies.add(movie);
+        }
+        return columnarMovies;
+    }
+
+    /**
+     * Appends a movie as a new row.
+     *
+     * @param movie The movie to append.
+     */
+    public void add(Movie movie) {
+
+        if (size == ids.length) {
+            grow(size * 2);
+        }
+        set(size++, movie);
+    }
+
+    /**
+     * Replaces the movie of a row.
+     *
+     * @param row The row.
+     * @param movie The movie stored in the row.
+     */
+    public void set(int row, Movie movie) {
+        releaseEpochDays[row] = ReleaseDateIndex.epochDay(movie.releaseDate());
+        voteAverages[row] = movie.minVoteAverage();
+        popularities[row] = movie.popularity();
+        voteCounts[row] = movie.voteCount();
+        genreBits[row] = genreBitsOf(movie.genres());
+        genreListIndexes[row] = genreListCode(movie.genres());
+        languageIndexes[row] = languageCode(movie.originalLanguage());
+        flags[row] = (byte) ((movie.adult() ? 1 : 0) | (movie.video() ? 2 : 0));
+        ids[row] = movie.id();
+        titles[row] = movie.title();
+        sortTitles[row] = null;
+        originalTitles[row] = movie.originalTitle();
+        releaseDates[row] = movie.releaseDate();
+        overviews[row] = movie.overview();
+        posterPaths[row] = movie.posterPath();
+        backdropPaths[row] = movie.backdropPath();
+    }
+
+    /**
+     * Removes a row by moving the last row in its place, so that the other rows keep their numbers.
+     *
+     * @param row The row removed.
+     * @return The former number of the row moved, which is now {@code row}, or -1 if the last row was removed.
+     */
+    public int remove(int row) {
+        int lastRow = --size;
+
+        if (row != lastRow) {
+            releaseEpochDays[row] = releaseEpochDays[lastRow];
+            voteAverages[row] = voteAverages[lastRow];
+            popularities[row] = popularities[lastRow];
+            voteCounts[row] = voteCounts[lastRow];
+            genreBits[row] = genreBits[lastRow];
+            genreListIndexes[row] = genreListIndexes[lastRow];
+            languageIndexes[row] = languageIndexes[lastRow];
+            flags[row] = flags[lastRow];
+            ids[row] = ids[lastRow];
+            titles[row] = titles[lastRow];
+            sortTitles[row] = sortTitles[lastRow];
+            originalTitles[row] = originalTitles[lastRow];
+            releaseDates[row] = releaseDates[lastRow];
+            overviews[row] = overviews[lastRow];
+            posterPaths[row] = posterPaths[lastRow];
+            backdropPaths[row] = backdropPaths[lastRow];
+        }
+
+        ids[lastRow] = null;
+        titles[lastRow] = null;
+        sortTitles[lastRow] = null;
+        originalTitles[lastRow] = null;
+        releaseDates[lastRow] = null;
+        overviews[lastRow] = null;
+        posterPaths[lastRow] = null;
+        backdropPaths[lastRow] = null;
+        return row != lastRow ? lastRow : -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the shared instance of the movie of a row.
+     *
+     * @param row The row.
+     * @return A movie equal to the one stored in the row.
+     */
+    public Movie get(int row) {
+        return MoviePool.instance.canonical(new Movie((flags[row] & 1) != 0, backdropPaths[row], genreLists.get(genreListIndexes[row]),
+                ids[row], languages.get(languageIndexes[row]), originalTitles[row], overviews[row], popularities[row],
+                posterPaths[row], releaseDates[row], titles[row], (flags[row] & 2) != 0, voteAverages[row], voteCounts[row]));
+    }
+
+    /**
+     * Checks if a row stores a movie, without creating the movie of the row.
+     *
+     * @param row The row.
+     * @param movie The movie compared.
+     * @return {@code true} if the movie of the row is equal to the given movie, {@code false} otherwise.
+     */
+    public boolean holds(int row, Movie movie) {
+        return Objects.equals(ids[row], movie.id())
+                && Double.compare(popularities[row], movie.popularity()) == 0
+                && Double.compare(voteAverages[row], movie.minVoteAverage()) == 0
+                && voteCounts[row] == movie.voteCount()
+                && flags[row] == (byte) ((movie.adult() ? 1 : 0) | (movie.video() ? 2 : 0))
+                && Objects.equals(titles[row], movie.title())
+                && Objects.equals(originalTitles[row], movie.originalTitle())
+                && Objects.equals(releaseDates[row], movie.releaseDate())
+                && Objects.equals(overviews[row], movie.overview())
+                && Objects.equals(posterPaths[row], movie.posterPath())
+                && Objects.equals(backdropPaths[row], movie.backdropPath())
+                && Objects.equals(languages.get(languageIndexes[row]), movie.originalLanguage())
+                && Objects.equals(genreLists.get(genreListIndexes[row]), movie.genres());
+    }
+
+    public String getId(int row) {
+        return ids[row];
+    }
+
+    public int getReleaseEpochDay(int row) {
+        return releaseEpochDays[row];
+    }
+
+    public String getOriginalLanguage(int row) {
+        return languages.get(languageIndexes[row]);
+    }
+
+    /**
+     * Finds the rows matching a query with a loop over the primitive columns. The bounds of the query are converted
+     * once to the types of the columns; the title is the only text compared, and only if the query has one.
+     *
+     * @param query The compiled search criteria.
+     * @return The matching rows, in increasing order.
+     */
+    public int[] filter(MovieQuery query) {
+        boolean filterTitles = query.hasTitle();
+        boolean filterDates = query.hasYearRange();
+        boolean filterGenres = query.hasGenres();
+        long queriedGenres = 0;
+
+        for (int bit = 0; bit < genreBitCount; bit++) {
+            if (query.matchesGenre(genreIdByBit[bit])) {
+                queriedGenres |= 1L << bit;
+            }
+        }
+
+        long minEpochDay = filterDates ? ReleaseDateIndex.firstEpochDayOf(query.getMinYear()) : Long.MIN_VALUE;
+        long maxEpochDay = filterDates ? ReleaseDateIndex.firstEpochDayOf(query.getMaxYear() + 1L) - 1 : Long.MAX_VALUE;
+        double minVoteAverage = query.getMinVoteAverage();
+        int[] rows = new int[size];
+        int count = 0;
+
+        for (int row = 0; row < size; row++) {
+            int epochDay = releaseEpochDays[row];
+
+            if (voteAverages[row] >= minVoteAverage
+                    && (!filterDates || (epochDay != UNKNOWN_DATE && epochDay >= minEpochDay && epochDay <= maxEpochDay))
+                    && (!filterGenres || (genreBits[row] & queriedGenres) != 0)
+                    && (!filterTitles || query.matchesTitle(titles[row], originalTitles[row]))) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Sorts rows with the same order as {@link moviesapp.model.search.MovieSorter}: each key breaks the ties of the
+     * previous ones and rows equal on every key keep their order. The comparisons read the primitive columns.
+     *
+     * @param rows The rows to sort, which are not modified.
+     * @param keys The sort keys, from the most significant to the least significant.
+     * @return The sorted rows.
+     */
+    public int[] sort(int[] rows, SortKey... keys) {
+        int[] sorted = rows.clone();
+        mergeSort(sorted, new int[sorted.length], 0, sorted.length, comparator(keys));
+        return sorted;
+    }
+
+    /**
+     * Selects the first rows in the order of the keys with a heap of at most {@code count} rows, without sorting all
+     * of them. The heap holds positions in the given rows, so that rows equal on every key keep their order.
+     *
+     * @param rows The rows to select from.
+     * @param count The number of rows to keep.
+     * @param keys The sort keys, from the most significant to the least significant.
+     * @return The {@code count} first rows (or all of them if there are fewer), sorted.
+     */
+    public int[] top(int[] rows, int count, SortKey... keys) {
+        RowComparator rowComparator = comparator(keys);
+        RowComparator comparator = (first, second) -> {
+            int comparison = rowComparator.compare(rows[first], rows[second]);
+            return comparison != 0 ? comparison : Integer.compare(first, second);
+        };
+        int[] heap = new int[Math.max(0, Math.min(count, rows.length))];
+        int heapSize = 0;
+
+        for (int i = 0; i < rows.length; i++) {
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, comparator);
+            }
+            else if (heapSize > 0 && comparator.compare(i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, heapSize, comparator);
+            }
+        }
+
+        mergeSort(heap, new int[heap.length], 0, heap.length, comparator);
+        for (int i = 0; i < heap.length; i++) {
+            heap[i] = rows[heap[i]];
+        }
+        return heap;
+    }
+
+    /**
+     * Creates the movies of a page of rows only.
+     *
+     * @param rows The rows, for example filtered then sorted.
+     * @param page The page number, starting at 1.
+     * @param pageSize The number of movies per page.
+     * @return The movies of the page, empty if the page is after the last row.
+     */
+    public Movies page(int[] rows, int page, int pageSize) {
+        Movies movies = new Movies();
+        int from = Math.max(0, (page - 1) * pageSize);
+
+        for (int i = from; i < Math.min(rows.length, from + pageSize); i++) {
+            movies.add(get(rows[i]));
+        }
+        return movies;
+    }
+
+    @Override
+    public void findMoviesByQuery(Movies movies, MovieQuery query) {
+
+        for (int row : filter(query)) {
+            movies.add(get(row));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowComparator {
+        int compare(int firstRow, int secondRow);
+    }
+
+    /**
+     * Builds the comparison of two rows on the keys. The normalized titles are computed once per row, when a sort
+     * on the titles first reads them.
+     */
+    private RowComparator comparator(SortKey[] keys) {
+        return (firstRow, secondRow) -> {
+            for (SortKey key : keys) {
+                int comparison = switch (key) {
+                    case POPULARITY -> Double.compare(popularities[secondRow], popularities[firstRow]);
+                    case VOTE_AVERAGE -> Double.compare(voteAverages[secondRow], voteAverages[firstRow]);
+                    case VOTE_COUNT -> Integer.compare(voteCounts[secondRow], voteCounts[firstRow]);
+                    case RELEASE_DATE -> Integer.compare(releaseEpochDays[secondRow], releaseEpochDays[firstRow]);
+                    case TITLE -> sortTitle(firstRow).compareTo(sortTitle(secondRow));
+                };
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private String sortTitle(int row) {
+
+        if (sortTitles[row] == null) {
+            sortTitles[row] = TextNormalizer.normalize(titles[row]);
+        }
+        return sortTitles[row];
+    }
+
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, RowComparator comparator) {
+
+        if (to - from < 2) {
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, middle, comparator);
+        mergeSort(rows, buffer, middle, to, comparator);
+
+        if (comparator.compare(rows[middle - 1], rows[middle]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && comparator.compare(buffer[left], buffer[right]) <= 0)) {
+                rows[i] = buffer[left++];
+            }
+            else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    /**
+     * Keeps the worst of the selected rows at the root of the heap.
+     */
+    private static void siftUp(int[] heap, int index, RowComparator comparator) {
+
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (comparator.compare(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int heapSize, RowComparator comparator) {
+        int index = 0;
+
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+
+            if (left < heapSize && comparator.compare(heap[left], heap[worst]) > 0) {
+                worst = left;
+            }
+            if (right < heapSize && comparator.compare(heap[right], heap[worst]) > 0) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] array, int first, int second) {
+        int value = array[first];
+        array[first] = array[second];
+        array[second] = value;
+    }
+
+    private long genreBitsOf(List<String> genres) {
+        long bits = 0;
+
+        if (genres == null) {
+            return bits;
+        }
+
+        for (String genre : genres) {
+            Integer bit = genreBitById.get(genre);
+
+            if (bit == null && genreBitCount < MAX_GENRES && genre != null && genre.matches("\\d{1,9}")) {
+                bit = genreBitCount++;
+                genreBitById.put(genre, bit);
+                genreIdByBit[bit] = Integer.parseInt(genre);
+            }
+            if (bit != null) {
+                bits |= 1L << bit;
+            }
+        }
+        return bits;
+    }
+
+    private short languageCode(String language) {
+        Short code = languageCodes.get(language);
+
+        if (code == null) {
+            code = (short) languages.size();
+            languageCodes.put(language, code);
+            languages.add(language);
+        }
+        return code;
+    }
+
+    /**
+     * Returns the code of a list of genres, so that the movies with the same genres share one list.
+     */
+    private int genreListCode(List<String> genres) {
+        Integer code = genreListCodes.get(genres);
+
+        if (code == null) {
+            code = genreLists.size();
+            genreLists.add(genres);
+            genreListCodes.put(genres, code);
+        }
+        return code;
+    }
+
+    private void grow(int capacity) {
+        releaseEpochDays = Arrays.copyOf(releaseEpochDays, capacity);
+        voteAverages = Arrays.copyOf(voteAverages, capacity);
+        popularities = Arrays.copyOf(popularities, capacity);
+        voteCounts = Arrays.copyOf(voteCounts, capacity);
+        genreBits = Arrays.copyOf(genreBits, capacity);
+        genreListIndexes = Arrays.copyOf(genreListIndexes, capacity);
+        languageIndexes = Arrays.copyOf(languageIndexes, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        sortTitles = Arrays.copyOf(sortTitles, capacity);
+        originalTitles = Arrays.copyOf(originalTitles, capacity);
+        releaseDates = Arrays.copyOf(releaseDates, capacity);
+        overviews = Arrays.copyOf(overviews, capacity);
+        posterPaths = Arrays.copyOf(posterPaths, capacity);
+        backdropPaths = Arrays.copyOf(backdropPaths, capacity);
+    }
+}
@@ -1,8 +1,14 @@
 package moviesapp.model.movies;
 import moviesapp.model.exceptions.IndexException;
+import moviesapp.model.search.ParallelFilter;
+import moviesapp.model.search.ReleaseDateIndex;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static moviesapp.model.json.JsonReader.FAVORITES_READER;
 import static moviesapp.model.json.JsonWriter.FAVORITES_WRITER;
@@ -11,6 +17,19 @@ import static moviesapp.model.movies.Movies.selectMovieByIndex;
 public class Favorites extends MovieFinder {
     public static final Favorites instance = new Favorites();
     private static final Movies favorites = FAVORITES_READER.findAllMovies();
+    private static final List<FavoritesListener> listeners = new CopyOnWriteArrayList<>();
+    private static long version = 0;
+    private static final ReleaseDateIndex releaseDateIndex = new ReleaseDateIndex();
+    private static final Map<String, Integer> sequenceByMovieId = new HashMap<>();
+    private static final Map<Integer, Movie> favoritesBySequence = new HashMap<>();
+    private static int nextSequence = 0;
+    private static final QueryResultCache queryResultCache = new QueryResultCache(32);
+
+    static {
+        for (Movie favorite : favorites) {
+            indexFavorite(favorite);
+        }
+    }
 
 
     /** Return true if the list of favorites is empty, if not return false
@@ -28,6 +47,46 @@ public class Favorites extends MovieFinder {
         return favorites;
     }
 
+    /**
+     * Return the favorites from the most recently added to the oldest one. The returned list is a view: it follows
+     * the changes of the favorites without being copied.
+     * @return the favorites in reverse order of addition
+     */
+    public static List<Movie> inReverseOrder(){
+        return new AbstractList<>() {
+            @Override
+            public Movie get(int index) {
+                List<Movie> movieList = favorites.getMovieList();
+                return movieList.get(movieList.size() - 1 - index);
+            }
+
+            @Override
+            public int size() {
+                return favorites.size();
+            }
+        };
+    }
+
+    /**
+     * Registers a listener notified of every change of the favorites.
+     * @param listener the listener to register
+     */
+    public static void addListener(FavoritesListener listener){
+        listeners.add(listener);
+    }
+
+    public static void removeListener(FavoritesListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Return a number increased by every change of the favorites.
+     * @return the version of the favorites
+     */
+    public static long getVersion(){
+        return version;
+    }
+
     @Override
     public String toString(){
         return favorites.toString();
@@ -39,6 +98,13 @@ public class Favorites extends MovieFinder {
     public static void clear(){
         try{
             favorites.clear();
+            releaseDateIndex.clear();
+            sequenceByMovieId.clear();
+            favoritesBySequence.clear();
+            version++;
+            for (FavoritesListener listener : listeners){
+                listener.favoritesCleared();
+            }
         }
         catch(UnsupportedOperationException e){
             System.out.println("The operation was unsuccessful.");
@@ -67,36 +133,79 @@ public class Favorites extends MovieFinder {
         return favoritesIds;
     }
 
-    public void findMoviesByCriteria(Movies movies, String title, String releaseYear, List<String> genres, String minVoteAverage) {
-        for (Movie movie : favorites) {
-            boolean titleCondition = (title == null) ||
-                    movie.originalTitle().toLowerCase().contains(title.toLowerCase());
-            boolean yearCondition = (releaseYear == null) ||
-                    movie.releaseDate().toLowerCase().startsWith(releaseYear.toLowerCase());
-            boolean genreCondition = (genres == null || genres.isEmpty()) ||
-                    movieContainsAnyGenre(movie, genres);
-            boolean voteCondition = (minVoteAverage == null) ||
-                    Double.parseDouble(minVoteAverage) <= movie.minVoteAverage();
+    /**
+     * Adds the favorites matching a query, in the order in which they were added. The title is matched with the rule
+     * of the local movies: every word is a word of the title or original title, the last one being a prefix. The
+     * results are cached until the favorites change, so that a repeated or refined search does not check every
+     * favorite again.
+     *
+     * @param movies is a list of movies to which we add the new movie(s) to the list
+     * @param query the compiled search criteria
+     */
+    @Override
+    public void findMoviesByQuery(Movies movies, MovieQuery query) {
+        for (Movie movie : queryResultCache.find(query, version, Favorites::search)) {
+            movies.add(movie);
+        }
+    }
+
+    /**
+     * Return the cache of the results of the searches among the favorites.
+     * @return the cache of the results of the searches among the favorites
+     */
+    public static QueryResultCache getQueryResultCache(){
+        return queryResultCache;
+    }
+
+    /**
+     * Searches the favorites matching a query. When the query has a range of years, only the favorites released in
+     * it are checked against the other criteria.
+     * @param query the compiled search criteria
+     * @return the matching favorites, in the order in which they were added
+     */
+    private static List<Movie> search(MovieQuery query){
+        List<Movie> candidates = query.hasYearRange() ? favoritesInYears(query.getMinYear(), query.getMaxYear()) : favorites.getMovieList();
+        return ParallelFilter.filter(candidates, query::matches, movie -> movie);
+    }
 
-            if (titleCondition && yearCondition && genreCondition && voteCondition) {
-                movies.add(movie);
-            }
+    /**
+     * Finds the favorites released in a range of years with the release date index.
+     * @param minYear the first year of the range
+     * @param maxYear the last year of the range
+     * @return the favorites released in the range, in the order in which they were added
+     */
+    private static List<Movie> favoritesInYears(int minYear, int maxYear){
+        List<Movie> favoritesInYears = new ArrayList<>();
+
+        for (int sequence : releaseDateIndex.documentsInYears(minYear, maxYear)){
+            favoritesInYears.add(favoritesBySequence.get(sequence));
         }
+        return favoritesInYears;
     }
 
     /**
-     * Checks if the movie contains at least one genre from the specified list.
-     * @param movie The movie to check.
-     * @param genres The list of genres to search for in the movie.
-     * @return {@code true} if the movie contains at least one of the specified genres, {@code false} otherwise.
+     * Gives a favorite the next sequence number, which follows the order of the favorites, and indexes its
+     * release date under it.
+     * @param favorite the favorite to index
      */
-    private static boolean movieContainsAnyGenre(Movie movie, List<String> genres) {
-        for (String genre : genres) {
-            if (movie.genres().contains(genre)) {
-                return true;
-            }
+    private static void indexFavorite(Movie favorite){
+        if (sequenceByMovieId.containsKey(favorite.id())){
+            return;
+        }
+
+        int sequence = nextSequence++;
+        sequenceByMovieId.put(favorite.id(), sequence);
+        favoritesBySequence.put(sequence, favorite);
+        releaseDateIndex.add(sequence, favorite.releaseDate());
+    }
+
+    private static void unindexFavorite(Movie favorite){
+        Integer sequence = sequenceByMovieId.remove(favorite.id());
+
+        if (sequence != null){
+            Movie indexedFavorite = favoritesBySequence.remove(sequence);
+            releaseDateIndex.remove(sequence, indexedFavorite.releaseDate());
         }
-        return false;
     }
 
     /**
@@ -146,6 +255,11 @@ public class Favorites extends MovieFinder {
 
         if(movie != null && !contains(movie)){
             favorites.add(movie);
+            indexFavorite(movie);
+            version++;
+            for (FavoritesListener listener : listeners){
+                listener.movieAdded(movie, favorites.size() - 1);
+            }
         }
     }
 
@@ -157,7 +271,13 @@ public class Favorites extends MovieFinder {
     public static void remove(Movie movie){
 
         if(movie != null && contains(movie)){
-            favorites.remove(movie);
+            int index = favoritesIds().indexOf(movie.id());
+            Movie removedMovie = favorites.getMovieList().remove(index);
+            unindexFavorite(removedMovie);
+            version++;
+            for (FavoritesListener listener : listeners){
+                listener.movieRemoved(removedMovie, index);
+            }
         }
     }
 
@@ -0,0 +1,25 @@
+package moviesapp.model.movies;
+
+public interface FavoritesListener {
+
+    /**
+     * Called after a movie has been added to the favorites.
+     *
+     * @param movie The added movie.
+     * @param index The index of the movie in the favorites, in the order in which they were added.
+     */
+    void movieAdded(Movie movie, int index);
+
+    /**
+     * Called after a movie has been removed from the favorites.
+     *
+     * @param movie The removed movie.
+     * @param index The index the movie had in the favorites, in the order in which they were added.
+     */
+    void movieRemoved(Movie movie, int index);
+
+    /**
+     * Called after every movie has been removed from the favorites.
+     */
+    void favoritesCleared();
+}
@@ -0,0 +1,254 @@
+package moviesapp.model.movies;
+
+import moviesapp.model.search.FacetCounts;
+import moviesapp.model.search.FacetIndex;
+import moviesapp.model.search.FuzzyTitleMatcher;
+import moviesapp.model.search.MovieSorter.SortKey;
+import moviesapp.model.search.ParallelFilter;
+import moviesapp.model.search.PlotIndex;
+import moviesapp.model.search.TitleIndex;
+import moviesapp.model.search.TrigramIndex;
+
+import java.util.*;
+
+public class LocalMovies extends MovieFinder implements FavoritesListener {
+    public static final LocalMovies instance = new LocalMovies(50);
+
+    private final int maxCachedPages;
+    private final TitleIndex titleIndex = new TitleIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final PlotIndex plotIndex = new PlotIndex();
+    private final ColumnarMovies store = new ColumnarMovies();
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Map<String, Integer> referenceCounts = new HashMap<>();
+    private final Map<String, Movie> favorites = new HashMap<>();
+    private final Map<String, Movies> cachedPages;
+
+    /**
+     * The movies known without sending a request: the favorites and the pages of results kept in cache. A movie
+     * present in several of them is stored once, and stays until none of them contains it. The movies are stored by
+     * column, so that the filters and the sorts without a title read primitive arrays.
+     *
+     * @param maxCachedPages The number of pages of results kept, the least recently cached ones being dropped.
+     */
+    public LocalMovies(int maxCachedPages) {
+        this.maxCachedPages = maxCachedPages;
+        cachedPages = new LinkedHashMap<>(16, 0.75f, true);
+
+        for (Movie favorite : Favorites.asMovies()) {
+            favorites.put(favorite.id(), favorite);
+            retain(favorite);
+        }
+        Favorites.addListener(this);
+    }
+
+    /**
+     * Adds a page of results to the local movies. A page cached again under the same key replaces the previous one.
+     *
+     * @param key The key of the page, such as the URL of its request.
+     * @param page The movies of the page.
+     */
+    public synchronized void cachePage(String key, Movies page) {
+        Movies previousPage = cachedPages.remove(key);
+
+        if (previousPage != null) {
+            releaseAll(previousPage);
+        }
+        if (page == null || page.isEmpty()) {
+            return;
+        }
+
+        cachedPages.put(key, page);
+        for (Movie movie : page) {
+            retain(movie);
+        }
+
+        Iterator<Movies> eldestPages = cachedPages.values().iterator();
+        while (cachedPages.size() > maxCachedPages) {
+            Movies eldestPage = eldestPages.next();
+            eldestPages.remove();
+            releaseAll(eldestPage);
+        }
+    }
+
+    /**
+     * Searches the local movies by title, using the index of the words of their titles and original titles.
+     *
+     * @param text The searched words, the last one being a prefix, or a phrase between double quotes.
+     * @return The matching movies.
+     */
+    public synchronized Movies searchTitles(String text) {
+        return new Movies(new ArrayList<>(titleIndex.search(text)));
+    }
+
+    /**
+     * Searches the local movies by plot, using the full-text index of their overviews and titles.
+     *
+     * @param text The searched words, in any order.
+     * @param limit The maximum number of movies returned.
+     * @return The matching movies, ranked from the most relevant to the least relevant.
+     */
+    public synchronized Movies searchPlot(String text, int limit) {
+        return new Movies(plotIndex.search(text, limit));
+    }
+
+    /**
+     * Adds the local movies matching a query. The title of the query is searched in the title index: it matches
+     * the movies containing its words, the last one being a prefix, in their title or original title. Without a
+     * title, the columns of the store are filtered.
+     *
+     * @param movies is a list of movies to which we add the new movie(s) to the list
+     * @param query the compiled search criteria
+     */
+    @Override
+    public synchronized void findMoviesByQuery(Movies movies, MovieQuery query) {
+
+        if (query.hasTitle()) {
+            for (Movie movie : ParallelFilter.filter(titleIndex.search(query.getTitle()), query::matchesIgnoringTitle, movie -> movie)) {
+                movies.add(movie);
+            }
+            return;
+        }
+        for (int row : store.filter(query)) {
+            movies.add(store.get(row));
+        }
+    }
+
+    /**
+     * Finds a page of the local movies matching a query, sorted on keys. The rows are filtered and sorted in the
+     * store, and only the movies of the page are created.
+     *
+     * @param query the compiled search criteria, whose title is searched as in {@link #findMoviesByQuery(Movies, MovieQuery)}
+     * @param page the page number, starting at 1
+     * @param pageSize the number of movies per page
+     * @param keys the sort keys, from the most significant to the least significant; none keeps the order of the store
+     * @return the movies of the page, empty if the page is after the last matching movie
+     */
+    public synchronized Movies findMoviesByQuery(MovieQuery query, int page, int pageSize, SortKey... keys) {
+        int[] rows = query.hasTitle() ? titleRows(query) : store.filter(query);
+
+        if (keys.length > 0) {
+            rows = store.top(rows, (int) Math.min((long) page * pageSize, rows.length), keys);
+        }
+        return store.page(rows, page, pageSize);
+    }
+
+    private int[] titleRows(MovieQuery query) {
+        List<Movie> matches = ParallelFilter.filter(titleIndex.search(query.getTitle()), query::matchesIgnoringTitle, movie -> movie);
+        int[] rows = new int[matches.size()];
+
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = rowById.get(matches.get(i).id());
+        }
+        return rows;
+    }
+
+    /**
+     * Searches the local movies whose title is close to the title researched, using the index of the trigrams of
+     * their titles. A title too short to contain typing errors is searched as the beginning of a word.
+     *
+     * @param title the title researched
+     * @return a list of movies ranked from the most similar title to the least similar one, then by popularity
+     */
+    @Override
+    public synchronized Movies findMoviesByFuzzyTitle(String title) {
+        List<Movie> matches = trigramIndex.search(title);
+
+        if (matches.isEmpty() && FuzzyTitleMatcher.normalizeTitle(title).length() < 3) {
+            matches = FuzzyTitleMatcher.rank(title, titleIndex.search(title));
+        }
+        return new Movies(matches);
+    }
+
+    /**
+     * Counts the local movies of each genre, decade and rating matching the filters of a query, the counts of a
+     * facet ignoring the filter on that facet.
+     *
+     * @param query the filters, whose title is ignored
+     * @return the counts of every facet
+     */
+    public synchronized FacetCounts countFacets(MovieQuery query) {
+        return facetIndex.count(query);
+    }
+
+    public synchronized int size() {
+        return store.size();
+    }
+
+    public synchronized boolean contains(String movieId) {
+        return rowById.containsKey(movieId);
+    }
+
+    @Override
+    public synchronized void movieAdded(Movie movie, int index) {
+
+        if (favorites.put(movie.id(), movie) == null) {
+            retain(movie);
+        }
+    }
+
+    @Override
+    public synchronized void movieRemoved(Movie movie, int index) {
+        Movie favorite = favorites.remove(movie.id());
+
+        if (favorite != null) {
+            release(favorite);
+        }
+    }
+
+    @Override
+    public synchronized void favoritesCleared() {
+        releaseAll(favorites.values());
+        favorites.clear();
+    }
+
+    private void retain(Movie movie) {
+        referenceCounts.merge(movie.id(), 1, Integer::sum);
+        Integer row = rowById.get(movie.id());
+
+        if (row == null || !store.holds(row, movie)) {
+            if (row == null) {
+                rowById.put(movie.id(), store.size());
+                store.add(movie);
+            }
+            else {
+                store.set(row, movie);
+            }
+            titleIndex.add(movie);
+            trigramIndex.add(movie);
+            facetIndex.add(movie);
+            plotIndex.add(movie);
+        }
+    }
+
+    private void release(Movie movie) {
+        Integer referenceCount = referenceCounts.get(movie.id());
+
+        if (referenceCount == null) {
+            return;
+        }
+        if (referenceCount > 1) {
+            referenceCounts.put(movie.id(), referenceCount - 1);
+            return;
+        }
+
+        referenceCounts.remove(movie.id());
+        int row = rowById.remove(movie.id());
+
+        if (store.remove(row) >= 0) {
+            rowById.put(store.getId(row), row);
+        }
+        titleIndex.remove(movie.id());
+        trigramIndex.remove(movie.id());
+        facetIndex.remove(movie.id());
+        plotIndex.remove(movie.id());
+    }
+
+    private void releaseAll(Iterable<Movie> releasedMovies) {
+
+        for (Movie movie : releasedMovies) {
+            release(movie);
+        }
+    }
+}
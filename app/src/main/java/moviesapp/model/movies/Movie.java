@@ -63,10 +63,27 @@ public record Movie(boolean adult, String backdropPath, List<String> genres, Str
                 "    }";
     }
 
+    /**
+     * Return the release year of the movie
+     * @return the release year of the movie, empty if the release date is unknown, as for an unreleased movie
+     */
     public String getReleaseYear(){
+
+        if(releaseDate == null || releaseDate.length() < 4){
+            return "";
+        }
         return releaseDate.substring(0,4);
     }
 
+    /**
+     * Return the title of the movie followed by its release year in parentheses, if it is known
+     * @return the title of the movie with its release year
+     */
+    public String titleWithReleaseYear(){
+        String releaseYear = getReleaseYear();
+        return releaseYear.isEmpty() ? title : title + " (" + releaseYear + ")";
+    }
+
     public String genresToString(){
 
         if(genres.isEmpty()){
@@ -1,5 +1,8 @@
 package moviesapp.model.movies;
 
+import moviesapp.model.api.SearchCriteria;
+import moviesapp.model.search.FuzzyTitleMatcher;
+
 import java.util.List;
 
 public abstract class MovieFinder {
@@ -43,6 +46,35 @@ public abstract class MovieFinder {
         return true;
     }
 
+    /**
+     * Return a list of movies matching the search criteria, compiled once into a query before the scan.
+     * @param criteria the search criteria (the genres are genre ids, the page is ignored)
+     * @return a list of movies, null if no information in criteria
+     */
+    public Movies findMovies(SearchCriteria criteria){
+        if(criteria == null || criteria.noInformationSent()){
+            return null;
+        }
+
+        Movies movies = new Movies();
+        findMoviesByQuery(movies, MovieQuery.compile(criteria));
+
+        return movies;
+    }
+
+    /**
+     * Return the movies whose title is close to the title researched: it may contain a few typing errors, the
+     * number tolerated growing with its length.
+     * @param title the title researched
+     * @return a list of movies ranked from the most similar title to the least similar one, then by popularity
+     */
+    public Movies findMoviesByFuzzyTitle(String title){
+        Movies movies = new Movies();
+        findMoviesByQuery(movies, MovieQuery.ALL);
+
+        return new Movies(FuzzyTitleMatcher.rank(title, movies));
+    }
+
     /**
      * Add to a list of movies the movie(s) from the JSON file selected with the criteria provided or not in parameter.
      * @param movies is a list of movies to which we add the new movie(s) to the list
@@ -51,5 +83,14 @@ public abstract class MovieFinder {
      * @param genres the genres that the movie checked
      * @param minVoteAverage the minimum vote average that the movie checked
      */
-    public abstract void findMoviesByCriteria(Movies movies, String title, String releaseYear, List<String> genres, String minVoteAverage);
+    public void findMoviesByCriteria(Movies movies, String title, String releaseYear, List<String> genres, String minVoteAverage){
+        findMoviesByQuery(movies, MovieQuery.compile(title, releaseYear, genres, minVoteAverage));
+    }
+
+    /**
+     * Add to a list of movies the movie(s) matching a compiled query.
+     * @param movies is a list of movies to which we add the new movie(s) to the list
+     * @param query the compiled search criteria
+     */
+    public abstract void findMoviesByQuery(Movies movies, MovieQuery query);
 }
@@ -0,0 +1,132 @@
+package moviesapp.model.movies;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A pool of movies keyed by their id, so that the same movie read from the favorites, the search results or the
+ * cached pages is a single shared instance. The pool only holds weak references: a movie no longer used anywhere else
+ * is collected and its entry dropped.
+ */
+public class MoviePool {
+    public static final MoviePool instance = new MoviePool();
+
+    private final Map<String, MovieReference> movies = new HashMap<>();
+    private final ReferenceQueue<Movie> collectedMovies = new ReferenceQueue<>();
+
+    /**
+     * Returns the shared instance of a movie. A pooled movie equal to the given one is returned instead of it;
+     * otherwise the given movie, which may hold fresher data than the pooled one, becomes the shared instance.
+     *
+     * @param movie The movie read.
+     * @return The shared instance of the movie, null if the movie is null.
+     */
+    public synchronized Movie canonical(Movie movie) {
+        expungeCollectedMovies();
+
+        if (movie == null || movie.id() == null) {
+            return movie;
+        }
+
+        MovieReference reference = movies.get(movie.id());
+        Movie pooledMovie = reference == null ? null : reference.get();
+
+        if (pooledMovie != null && pooledMovie.equals(movie)) {
+            return pooledMovie;
+        }
+        movies.put(movie.id(), new MovieReference(movie, collectedMovies));
+        return movie;
+    }
+
+    /**
+     * Replaces the movies of a list by their shared instances.
+     *
+     * @param movies The movies read.
+     * @return The shared instances of the movies, in the same order.
+     */
+    public Movies canonical(Movies movies) {
+        Movies canonicalMovies = new Movies();
+
+        for (Movie movie : movies.getMovieList()) {
+            canonicalMovies.add(canonical(movie));
+        }
+        return canonicalMovies;
+    }
+
+    /**
+     * Return the number of movies pooled and not collected yet
+     * @return the number of movies pooled
+     */
+    public synchronized int size() {
+        expungeCollectedMovies();
+        return movies.size();
+    }
+
+    public synchronized void clear() {
+        expungeCollectedMovies();
+        movies.clear();
+    }
+
+    /**
+     * Drops the entries of the collected movies, unless the id has been pooled again since.
+     */
+    private void expungeCollectedMovies() {
+        MovieReference reference;
+
+        while ((reference = (MovieReference) collectedMovies.poll()) != null) {
+            movies.remove(reference.movieId, reference);
+        }
+    }
+
+    private static class MovieReference extends WeakReference<Movie> {
+        private final String movieId;
+
+        private MovieReference(Movie movie, ReferenceQueue<Movie> queue) {
+            super(movie, queue);
+            movieId = movie.id();
+        }
+    }
+
+    /**
+     * The movies displayed since the last search. The listings of the API shift between two requests, so the same
+     * movie can come back on the next page: a session only lets through the movies it has not seen yet.
+     */
+    public static class Session {
+        private final Set<String> seenMovieIds = new HashSet<>();
+
+        /**
+         * Keeps the movies of a page not seen yet in the session, as their shared instances, and records them.
+         *
+         * @param page The movies of a page of results.
+         * @return The movies of the page not seen before, in the same order.
+         */
+        public Movies admit(Movies page) {
+            Movies newMovies = new Movies();
+
+            if (page == null) {
+                return newMovies;
+            }
+            for (Movie movie : page.getMovieList()) {
+                if (movie != null && seenMovieIds.add(movie.id())) {
+                    newMovies.add(instance.canonical(movie));
+                }
+            }
+            return newMovies;
+        }
+
+        /**
+         * Starts a new session, forgetting the movies seen.
+         */
+        public void reset() {
+            seenMovieIds.clear();
+        }
+
+        public int size() {
+            return seenMovieIds.size();
+        }
+    }
+}
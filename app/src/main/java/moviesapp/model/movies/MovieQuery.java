@@ -0,0 +1,333 @@
+package moviesapp.model.movies;
+
+import moviesapp.model.api.SearchCriteria;
+import moviesapp.model.search.TitleIndex;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import static moviesapp.model.api.Genres.GENRE_NAME_ID_MAP;
+
+public final class MovieQuery {
+    public static final MovieQuery ALL = new MovieQuery("", Integer.MIN_VALUE, Integer.MAX_VALUE, null, Double.NEGATIVE_INFINITY);
+
+    private final String title;
+    private final int minYear;
+    private final int maxYear;
+    private final BitSet genreIds;
+    private final double minVoteAverage;
+
+    /**
+     * Search criteria compiled once before a scan: the title is normalized, the numeric bounds are parsed and the
+     * genres are resolved to a set of genre ids, so that checking a movie needs no parsing and no allocation.
+     */
+    private MovieQuery(String title, int minYear, int maxYear, BitSet genreIds, double minVoteAverage) {
+        this.title = title;
+        this.minYear = minYear;
+        this.maxYear = maxYear;
+        this.genreIds = genreIds;
+        this.minVoteAverage = minVoteAverage;
+    }
+
+    /**
+     * Compiles the parameters of {@link MovieFinder#findMovies(String, String, List, String)}.
+     *
+     * @param title the title researched, null or empty for any title
+     * @param releaseYear the beginning of the release date researched (a year, or the first digits of a year),
+     *                    null or empty for any date
+     * @param genres the names or the ids of the genres researched, null or empty for any genre
+     * @param minVoteAverage the minimum vote average, null or empty for any vote average
+     * @return the compiled query
+     */
+    public static MovieQuery compile(String title, String releaseYear, List<String> genres, String minVoteAverage) {
+        int minYear = Integer.MIN_VALUE;
+        int maxYear = Integer.MAX_VALUE;
+
+        if (releaseYear != null && !releaseYear.isEmpty()) {
+            int[] yearRange = yearPrefixToRange(releaseYear);
+            minYear = yearRange[0];
+            maxYear = yearRange[1];
+        }
+
+        return new MovieQuery(normalizeTitle(title), minYear, maxYear, resolveGenres(genres), parseMinVoteAverage(minVoteAverage));
+    }
+
+    /**
+     * Compiles search criteria, whose genres are genre ids and whose years are bounds of a range.
+     *
+     * @param criteria the search criteria
+     * @return the compiled query
+     */
+    public static MovieQuery compile(SearchCriteria criteria) {
+        int minYear = criteria.minYear == null || criteria.minYear.isEmpty() ? Integer.MIN_VALUE : yearPrefixToRange(criteria.minYear)[0];
+        int maxYear = criteria.maxYear == null || criteria.maxYear.isEmpty() ? Integer.MAX_VALUE : yearPrefixToRange(criteria.maxYear)[1];
+
+        return new MovieQuery(normalizeTitle(criteria.title), minYear, maxYear, resolveGenres(criteria.genreIds),
+                parseMinVoteAverage(criteria.minVoteAverage));
+    }
+
+    /**
+     * Checks if a movie matches every criterion of the query.
+     *
+     * @param movie the movie to check
+     * @return {@code true} if the movie matches the query, {@code false} otherwise
+     */
+    public boolean matches(Movie movie) {
+        return matchesTitle(movie.title(), movie.originalTitle()) && matchesIgnoringTitle(movie);
+    }
+
+    /**
+     * Checks if a movie matches every criterion of the query but the title, for finders matching the title
+     * their own way.
+     *
+     * @param movie the movie to check
+     * @return {@code true} if the movie matches the release date, vote average and genre criteria, {@code false} otherwise
+     */
+    public boolean matchesIgnoringTitle(Movie movie) {
+        return matchesReleaseDate(movie.releaseDate())
+                && matchesVoteAverage(movie.minVoteAverage())
+                && matchesGenres(movie.genres());
+    }
+
+    /**
+     * Checks if the titles of a movie match the title of the query with the rule of the title index: every word of
+     * the query is a word of the titles, the last one being the beginning of a word (see {@link TitleIndex#matches}).
+     *
+     * @param movieTitle the title of a movie
+     * @param movieOriginalTitle the original title of the movie
+     * @return {@code true} if the titles match, {@code false} otherwise
+     */
+    public boolean matchesTitle(String movieTitle, String movieOriginalTitle) {
+        return title.isEmpty() || TitleIndex.matches(title, movieTitle, movieOriginalTitle);
+    }
+
+    /**
+     * Checks if the year of a release date is in the year range of the query.
+     *
+     * @param releaseDate a release date, starting with the year
+     * @return {@code true} if the release date matches, {@code false} otherwise
+     */
+    public boolean matchesReleaseDate(String releaseDate) {
+
+        if (!hasYearRange()) {
+            return true;
+        }
+
+        int year = releaseDate == null || releaseDate.length() < 4 ? -1 : parseNonNegativeInt(releaseDate, 0, 4);
+        return year >= 0 && year >= minYear && year <= maxYear;
+    }
+
+    public boolean matchesVoteAverage(double voteAverage) {
+        return voteAverage >= minVoteAverage;
+    }
+
+    /**
+     * Checks if at least one of the genre ids is researched by the query.
+     *
+     * @param movieGenreIds the genre ids of a movie
+     * @return {@code true} if the query has no genre or if one of the genres matches, {@code false} otherwise
+     */
+    public boolean matchesGenres(List<String> movieGenreIds) {
+
+        if (genreIds == null) {
+            return true;
+        }
+        if (movieGenreIds == null) {
+            return false;
+        }
+
+        for (int i = 0; i < movieGenreIds.size(); i++) {
+            if (matchesGenre(movieGenreIds.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a genre id is researched by the query.
+     *
+     * @param genreId a genre id
+     * @return {@code true} if the genre is researched, {@code false} otherwise
+     */
+    public boolean matchesGenre(int genreId) {
+        return genreIds == null || (genreId >= 0 && genreIds.get(genreId));
+    }
+
+    private boolean matchesGenre(String genreId) {
+        return genreId != null && matchesGenre(parseNonNegativeInt(genreId, 0, genreId.length()));
+    }
+
+    /**
+     * Checks if the query is narrower than another one: every movie matching it also matches the other query, its
+     * title refining the title of the other query (see {@link TitleIndex#refines}) and its ranges and genres being
+     * included in theirs.
+     *
+     * @param query the other query
+     * @return {@code true} if the movies matching the query are among the movies matching the other query
+     */
+    public boolean refines(MovieQuery query) {
+        return (query.title.isEmpty() || TitleIndex.refines(title, query.title))
+                && minYear >= query.minYear
+                && maxYear <= query.maxYear
+                && minVoteAverage >= query.minVoteAverage
+                && (query.genreIds == null || (genreIds != null && includedIn(genreIds, query.genreIds)));
+    }
+
+    private static boolean includedIn(BitSet genreIds, BitSet otherGenreIds) {
+        BitSet remainingGenreIds = (BitSet) genreIds.clone();
+        remainingGenreIds.andNot(otherGenreIds);
+        return remainingGenreIds.isEmpty();
+    }
+
+    public boolean hasTitle() {
+        return !title.isEmpty();
+    }
+
+    public boolean hasYearRange() {
+        return minYear != Integer.MIN_VALUE || maxYear != Integer.MAX_VALUE;
+    }
+
+    public boolean hasGenres() {
+        return genreIds != null;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getMinYear() {
+        return minYear;
+    }
+
+    public int getMaxYear() {
+        return maxYear;
+    }
+
+    public double getMinVoteAverage() {
+        return minVoteAverage;
+    }
+
+    /**
+     * Converts the first digits of a year to the range of the years starting with them, for example "199" to
+     * 1990-1999. A value that is not made of digits gives an empty range.
+     */
+    private static int[] yearPrefixToRange(String yearPrefix) {
+        String digits = yearPrefix.trim();
+        int prefix = digits.length() <= 4 ? parseNonNegativeInt(digits, 0, digits.length()) : -1;
+
+        if (prefix < 0) {
+            return new int[]{1, 0};
+        }
+
+        int scale = 1;
+        for (int i = digits.length(); i < 4; i++) {
+            scale *= 10;
+        }
+        return new int[]{prefix * scale, (prefix + 1) * scale - 1};
+    }
+
+    private static String normalizeTitle(String title) {
+        return title == null ? "" : title.toLowerCase();
+    }
+
+    private static double parseMinVoteAverage(String minVoteAverage) {
+
+        if (minVoteAverage == null || minVoteAverage.isEmpty()) {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        try {
+            return Double.parseDouble(minVoteAverage);
+        }
+        catch (NumberFormatException e) {
+            return Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Resolves genre names (whatever their case) or genre ids to a set of genre ids. Unknown genres are ignored,
+     * so a query on unknown genres only matches no movie.
+     */
+    private static BitSet resolveGenres(List<String> genres) {
+
+        if (genres == null || genres.isEmpty()) {
+            return null;
+        }
+
+        BitSet resolvedGenreIds = new BitSet();
+
+        for (String genre : genres) {
+            if (genre == null || genre.isEmpty()) {
+                continue;
+            }
+
+            int genreId = parseNonNegativeInt(genre, 0, genre.length());
+
+            if (genreId < 0) {
+                String genreIdFromName = GENRE_NAME_ID_MAP.get(genre.substring(0, 1).toUpperCase() + genre.substring(1));
+                genreId = genreIdFromName == null ? -1 : parseNonNegativeInt(genreIdFromName, 0, genreIdFromName.length());
+            }
+            if (genreId >= 0) {
+                resolvedGenreIds.set(genreId);
+            }
+        }
+        return resolvedGenreIds;
+    }
+
+    /**
+     * Parses the digits of a part of a string without creating any object.
+     *
+     * @return the value of the digits, or -1 if the part is empty or contains something else than digits
+     */
+    static int parseNonNegativeInt(CharSequence text, int from, int to) {
+
+        if (from >= to || to - from > 9) {
+            return -1;
+        }
+
+        int value = 0;
+
+        for (int i = from; i < to; i++) {
+            char character = text.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof MovieQuery query)) {
+            return false;
+        }
+        return minYear == query.minYear
+                && maxYear == query.maxYear
+                && Double.compare(minVoteAverage, query.minVoteAverage) == 0
+                && title.equals(query.title)
+                && Objects.equals(genreIds, query.genreIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, minYear, maxYear, genreIds, minVoteAverage);
+    }
+
+    @Override
+    public String toString() {
+        return "MovieQuery{" +
+                "title='" + title + '\'' +
+                ", minYear=" + minYear +
+                ", maxYear=" + maxYear +
+                ", genreIds=" + genreIds +
+                ", minVoteAverage=" + minVoteAverage +
+                '}';
+    }
+}
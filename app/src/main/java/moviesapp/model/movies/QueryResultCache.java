@@ -0,0 +1,129 @@
+package moviesapp.model.movies;
+
+import moviesapp.model.search.ParallelFilter;
+
+import java.util.*;
+import java.util.function.Function;
+
+public class QueryResultCache {
+    private final int capacity;
+    private final LinkedHashMap<MovieQuery, List<Movie>> results;
+    private long version = Long.MIN_VALUE;
+    private long hits = 0;
+    private long refinements = 0;
+    private long misses = 0;
+    private long invalidations = 0;
+
+    /**
+     * A cache of the results of local searches, keyed by the compiled query. Every result is tagged with the version
+     * of the movies searched: when the version changes, the whole cache is dropped. A query narrower than a cached
+     * one is answered by filtering the cached result instead of every movie.
+     *
+     * @param capacity The number of results kept, the least recently used ones being dropped.
+     */
+    public QueryResultCache(int capacity) {
+        this.capacity = capacity;
+        results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the movies matching a query, from the cache when possible.
+     *
+     * @param query The compiled query.
+     * @param version The current version of the movies searched, which must increase with every change of them.
+     * @param search The search of the movies matching a query, used when neither the query nor a broader one is
+     *               cached.
+     * @return The matching movies, in the order given by the search. The list must not be modified.
+     */
+    public synchronized List<Movie> find(MovieQuery query, long version, Function<MovieQuery, List<Movie>> search) {
+
+        if (version != this.version) {
+            if (!results.isEmpty()) {
+                invalidations++;
+            }
+            results.clear();
+            this.version = version;
+        }
+
+        List<Movie> result = results.get(query);
+
+        if (result != null) {
+            hits++;
+            return result;
+        }
+
+        List<Movie> broaderResult = smallestBroaderResult(query);
+
+        if (broaderResult != null) {
+            refinements++;
+            result = ParallelFilter.filter(broaderResult, query::matches, movie -> movie);
+        }
+        else {
+            misses++;
+            result = search.apply(query);
+        }
+
+        result = Collections.unmodifiableList(new ArrayList<>(result));
+        results.put(query, result);
+
+        Iterator<List<Movie>> eldestResults = results.values().iterator();
+        while (results.size() > capacity) {
+            eldestResults.next();
+            eldestResults.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Finds the smallest cached result of a query that every movie matching the given query matches.
+     */
+    private List<Movie> smallestBroaderResult(MovieQuery query) {
+        List<Movie> smallest = null;
+
+        for (Map.Entry<MovieQuery, List<Movie>> cachedResult : results.entrySet()) {
+            if (query.refines(cachedResult.getKey()) && (smallest == null || cachedResult.getValue().size() < smallest.size())) {
+                smallest = cachedResult.getValue();
+            }
+        }
+        return smallest;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getRefinements() {
+        return refinements;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Return the part of the searches answered from the cache, exactly or by refining a broader result.
+     * @return the hit ratio, between 0 and 1, 0 if there was no search
+     */
+    public synchronized double getHitRatio() {
+        long searches = hits + refinements + misses;
+        return searches == 0 ? 0 : (double) (hits + refinements) / searches;
+    }
+
+    /**
+     * Return a string that represents json code corresponding to the statistics of the cache.
+     * @return a string that represents json code corresponding to the statistics of the cache.
+     */
+    public synchronized String toJsonFormat() {
+        return "{\n" +
+                "    \"hits\" : " + hits + ",\n" +
+                "    \"refinements\" : " + refinements + ",\n" +
+                "    \"misses\" : " + misses + ",\n" +
+                "    \"invalidations\" : " + invalidations + ",\n" +
+                "    \"hit_ratio\" : " + getHitRatio() + "\n" +
+                "  }";
+    }
+}
@@ -0,0 +1,37 @@
+package moviesapp.model.search;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The number of movies for each value of the genre, decade and rating facets.
+ * The counts of a facet ignore the filter on that facet, so that they tell how many movies each choice would give.
+ *
+ * @param total The number of movies matching every filter.
+ * @param genreCounts The number of movies of each genre id.
+ * @param decadeCounts The number of movies of each decade, keyed by the first year of the decade.
+ * @param ratingCounts The number of movies whose vote average is at least {@code i} and less than {@code i + 1}, at
+ *                     index {@code i}, from 0 to 10.
+ */
+public record FacetCounts(int total, Map<Integer, Integer> genreCounts, SortedMap<Integer, Integer> decadeCounts,
+                          int[] ratingCounts) {
+
+    public int genreCount(int genreId) {
+        return genreCounts.getOrDefault(genreId, 0);
+    }
+
+    /**
+     * Returns the number of movies whose vote average is at least a rating.
+     *
+     * @param rating A rating from 0 to 10.
+     * @return The number of movies rated at least {@code rating}.
+     */
+    public int countAtLeast(int rating) {
+        int count = 0;
+
+        for (int i = Math.max(rating, 0); i < ratingCounts.length; i++) {
+            count += ratingCounts[i];
+        }
+        return count;
+    }
+}
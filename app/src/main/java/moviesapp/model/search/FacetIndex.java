@@ -0,0 +1,227 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+
+import java.util.*;
+
+/**
+ * The facets of a set of movies stored in compact arrays, one slot per movie: a bit mask of its genres, its release
+ * year and its vote average. Counting the facets is a single pass over these arrays.
+ * The index is updated movie by movie and is not thread-safe.
+ */
+public class FacetIndex {
+    static final int MAX_GENRES = Long.SIZE;
+    static final int MAX_YEAR = 2999;
+    static final int MAX_RATING = 10;
+
+    private final Map<String, Integer> slotByMovieId = new HashMap<>();
+    private final Map<Integer, Integer> genreBitById = new HashMap<>();
+    private final int[] genreIdByBit = new int[MAX_GENRES];
+    private int genreBitCount = 0;
+    private String[] movieIds = new String[16];
+    private long[] genreMasks = new long[16];
+    private short[] years = new short[16];
+    private double[] voteAverages = new double[16];
+    private int size = 0;
+
+    /**
+     * Builds the facet index of a result set.
+     *
+     * @param movies The movies of the result set.
+     * @return The facet index of the movies.
+     */
+    public static FacetIndex of(Iterable<Movie> movies) {
+        FacetIndex facetIndex = new FacetIndex();
+
+        for (Movie movie : movies) {
+            facetIndex.add(movie);
+        }
+        return facetIndex;
+    }
+
+    /**
+     * Adds the facets of a movie. A movie already indexed with the same id is replaced.
+     * Only the first 64 distinct genres met are counted.
+     *
+     * @param movie The movie to add.
+     */
+    public void add(Movie movie) {
+        Integer slot = slotByMovieId.get(movie.id());
+
+        if (slot == null) {
+            if (size == movieIds.length) {
+                grow();
+            }
+            slot = size++;
+            slotByMovieId.put(movie.id(), slot);
+        }
+
+        movieIds[slot] = movie.id();
+        genreMasks[slot] = genreMask(movie.genres());
+        years[slot] = (short) releaseYear(movie.releaseDate());
+        voteAverages[slot] = movie.minVoteAverage();
+    }
+
+    /**
+     * Removes the facets of a movie, moving the last slot to the freed one.
+     *
+     * @param movieId The id of the movie to remove.
+     */
+    public void remove(String movieId) {
+        Integer slot = slotByMovieId.remove(movieId);
+
+        if (slot == null) {
+            return;
+        }
+
+        int last = --size;
+        if (slot != last) {
+            movieIds[slot] = movieIds[last];
+            genreMasks[slot] = genreMasks[last];
+            years[slot] = years[last];
+            voteAverages[slot] = voteAverages[last];
+            slotByMovieId.put(movieIds[slot], slot);
+        }
+        movieIds[last] = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        slotByMovieId.clear();
+        Arrays.fill(movieIds, null);
+        size = 0;
+    }
+
+    /**
+     * Counts the movies of each genre, decade and rating matching the filters of a query, in one pass. The title of
+     * the query is ignored. The counts of a facet ignore the filter on that facet.
+     *
+     * @param query The filters.
+     * @return The counts of every facet.
+     */
+    public FacetCounts count(MovieQuery query) {
+        boolean filterGenres = query.hasGenres();
+        boolean filterYears = query.hasYearRange();
+        long queriedGenres = 0;
+
+        for (int bit = 0; bit < genreBitCount; bit++) {
+            if (query.matchesGenre(genreIdByBit[bit])) {
+                queriedGenres |= 1L << bit;
+            }
+        }
+
+        int minYear = query.getMinYear();
+        int maxYear = query.getMaxYear();
+        double minVoteAverage = query.getMinVoteAverage();
+        int[] genreBitCounts = new int[MAX_GENRES];
+        int[] decadeCounts = new int[MAX_YEAR / 10 + 1];
+        int[] ratingCounts = new int[MAX_RATING + 1];
+        int total = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            long genreMask = genreMasks[slot];
+            int year = years[slot];
+            double voteAverage = voteAverages[slot];
+
+            boolean genreMatches = !filterGenres || (genreMask & queriedGenres) != 0;
+            boolean yearMatches = !filterYears || (year >= 0 && year >= minYear && year <= maxYear);
+            boolean ratingMatches = voteAverage >= minVoteAverage;
+
+            if (yearMatches && ratingMatches) {
+                for (long bits = genreMask; bits != 0; bits &= bits - 1) {
+                    genreBitCounts[Long.numberOfTrailingZeros(bits)]++;
+                }
+            }
+            if (genreMatches && ratingMatches && year >= 0) {
+                decadeCounts[year / 10]++;
+            }
+            if (genreMatches && yearMatches) {
+                ratingCounts[Math.max(0, Math.min(MAX_RATING, (int) voteAverage))]++;
+            }
+            if (genreMatches && yearMatches && ratingMatches) {
+                total++;
+            }
+        }
+        return new FacetCounts(total, genreCounts(genreBitCounts), decadeCounts(decadeCounts), ratingCounts);
+    }
+
+    private Map<Integer, Integer> genreCounts(int[] genreBitCounts) {
+        Map<Integer, Integer> genreCounts = new HashMap<>();
+
+        for (int bit = 0; bit < genreBitCount; bit++) {
+            genreCounts.put(genreIdByBit[bit], genreBitCounts[bit]);
+        }
+        return genreCounts;
+    }
+
+    private static SortedMap<Integer, Integer> decadeCounts(int[] decadeCounts) {
+        SortedMap<Integer, Integer> counts = new TreeMap<>();
+
+        for (int decade = 0; decade < decadeCounts.length; decade++) {
+            if (decadeCounts[decade] > 0) {
+                counts.put(decade * 10, decadeCounts[decade]);
+            }
+        }
+        return counts;
+    }
+
+    private long genreMask(List<String> genreIds) {
+        long genreMask = 0;
+
+        if (genreIds == null) {
+            return genreMask;
+        }
+
+        for (String genre : genreIds) {
+            int genreId = parseDigits(genre, genre == null ? 0 : genre.length());
+            if (genreId < 0) {
+                continue;
+            }
+
+            Integer bit = genreBitById.get(genreId);
+            if (bit == null && genreBitCount < MAX_GENRES) {
+                bit = genreBitCount++;
+                genreBitById.put(genreId, bit);
+                genreIdByBit[bit] = genreId;
+            }
+            if (bit != null) {
+                genreMask |= 1L << bit;
+            }
+        }
+        return genreMask;
+    }
+
+    private static int releaseYear(String releaseDate) {
+        int year = releaseDate == null || releaseDate.length() < 4 ? -1 : parseDigits(releaseDate, 4);
+        return year > MAX_YEAR ? -1 : year;
+    }
+
+    private static int parseDigits(String text, int length) {
+
+        if (text == null || length == 0 || length > 9) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char character = text.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+
+    private void grow() {
+        int capacity = movieIds.length * 2;
+        movieIds = Arrays.copyOf(movieIds, capacity);
+        genreMasks = Arrays.copyOf(genreMasks, capacity);
+        years = Arrays.copyOf(years, capacity);
+        voteAverages = Arrays.copyOf(voteAverages, capacity);
+    }
+}
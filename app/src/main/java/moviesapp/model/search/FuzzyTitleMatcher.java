@@ -0,0 +1,146 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class FuzzyTitleMatcher {
+
+    /**
+     * Orders the matches from the most similar title to the least similar one, then from the most popular movie to
+     * the least popular one.
+     */
+    static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::similarity).reversed()
+            .thenComparing(Comparator.comparingDouble((Match match) -> match.movie().popularity()).reversed());
+
+    private FuzzyTitleMatcher() {
+    }
+
+    record Match(Movie movie, double similarity) {
+    }
+
+    /**
+     * Ranks the movies whose title or original title contains the searched title with at most a few typing errors
+     * (a missing, extra, wrong or swapped letter), the number of errors tolerated growing with the length of the
+     * searched title. Every movie is checked, which suits small lists of movies, such as the favorites or a page.
+     *
+     * @param title The searched title.
+     * @param movies The movies to search.
+     * @return The matching movies, ranked by similarity then by popularity.
+     */
+    public static List<Movie> rank(String title, Iterable<Movie> movies) {
+        String query = normalizeTitle(title);
+        List<Match> matches = new ArrayList<>();
+
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        int maxEdits = maxEdits(query.length());
+
+        for (Movie movie : movies) {
+            int distance = Math.min(
+                    distance(query, normalizeTitle(movie.title()), maxEdits),
+                    distance(query, normalizeTitle(movie.originalTitle()), maxEdits));
+
+            if (distance <= maxEdits) {
+                matches.add(new Match(movie, similarity(query, distance)));
+            }
+        }
+        return sortMatches(matches);
+    }
+
+    /**
+     * Normalizes a title for fuzzy matching: its tokens separated by single spaces.
+     *
+     * @param title The title.
+     * @return The normalized title.
+     */
+    public static String normalizeTitle(String title) {
+        return String.join(" ", TextNormalizer.tokenize(title));
+    }
+
+    /**
+     * Returns the number of typing errors tolerated in a searched title.
+     *
+     * @param length The length of the normalized searched title.
+     * @return The maximum edit distance.
+     */
+    public static int maxEdits(int length) {
+
+        if (length <= 2) {
+            return 0;
+        }
+        else if (length <= 5) {
+            return 1;
+        }
+        else if (length <= 10) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * Computes the smallest edit distance between a query and any part of a text, counting the insertion, deletion
+     * or substitution of a character and the swap of two adjacent characters as one edit.
+     *
+     * @param query The normalized query.
+     * @param text The normalized text.
+     * @param maxEdits The maximum distance of interest.
+     * @return The distance, or {@code maxEdits + 1} if it is greater than {@code maxEdits}.
+     */
+    public static int distance(String query, String text, int maxEdits) {
+        int length = query.length();
+        int[] beforePrevious = new int[length + 1];
+        int[] previous = new int[length + 1];
+        int[] current = new int[length + 1];
+        int best = length;
+
+        for (int i = 0; i <= length; i++) {
+            previous[i] = i;
+        }
+
+        for (int j = 1; j <= text.length(); j++) {
+            char textCharacter = text.charAt(j - 1);
+            current[0] = 0;
+
+            for (int i = 1; i <= length; i++) {
+                char queryCharacter = query.charAt(i - 1);
+                int cost = queryCharacter == textCharacter ? 0 : 1;
+                int value = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+
+                if (i > 1 && j > 1 && queryCharacter == text.charAt(j - 2) && query.charAt(i - 2) == textCharacter) {
+                    value = Math.min(value, beforePrevious[i - 2] + 1);
+                }
+                current[i] = value;
+            }
+            best = Math.min(best, current[length]);
+
+            if (best == 0) {
+                return 0;
+            }
+
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(best, maxEdits + 1);
+    }
+
+    static double similarity(String query, int distance) {
+        return 1 - (double) distance / query.length();
+    }
+
+    static List<Movie> sortMatches(List<Match> matches) {
+        matches.sort(RANKING);
+        List<Movie> movies = new ArrayList<>(matches.size());
+
+        for (Match match : matches) {
+            movies.add(match.movie());
+        }
+        return movies;
+    }
+}
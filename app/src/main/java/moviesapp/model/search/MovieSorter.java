@@ -0,0 +1,217 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+
+import java.util.*;
+
+public class MovieSorter {
+
+    /**
+     * The keys movies can be sorted by. The numeric keys and the release date sort the highest value first, the
+     * title sorts alphabetically.
+     */
+    public enum SortKey {
+        POPULARITY("popularity"),
+        VOTE_AVERAGE("vote average"),
+        VOTE_COUNT("vote count"),
+        RELEASE_DATE("release date"),
+        TITLE("title");
+
+        private final String label;
+
+        SortKey(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final SortKey[] keys;
+
+    /**
+     * Creates a sorter comparing movies on several keys: a key is only used to order the movies equal on all the
+     * previous ones. Movies equal on every key keep their original order.
+     *
+     * @param keys The keys, from the most significant to the least significant.
+     */
+    public MovieSorter(List<SortKey> keys) {
+        this.keys = keys.toArray(new SortKey[0]);
+    }
+
+    public static MovieSorter by(SortKey... keys) {
+        return new MovieSorter(Arrays.asList(keys));
+    }
+
+    public List<SortKey> getKeys() {
+        return List.of(keys);
+    }
+
+    /**
+     * Sorts movies. The keys of every movie are computed once before sorting.
+     *
+     * @param movies The movies to sort, which are not modified.
+     * @return A new list of the movies, sorted.
+     */
+    public List<Movie> sort(List<Movie> movies) {
+        SortEntry[] entries = entriesOf(movies);
+        Arrays.sort(entries, this::compare);
+        return moviesOf(Arrays.asList(entries));
+    }
+
+    /**
+     * Sorts movies and keeps the first ones. When only some of them are kept, they are selected with
+     * {@link #top(Iterable, int)} instead of sorting every movie.
+     *
+     * @param movies The movies to sort, which are not modified.
+     * @param count The number of movies to keep.
+     * @return A new list of the {@code count} first movies, sorted.
+     */
+    public List<Movie> sort(List<Movie> movies, int count) {
+        return count < movies.size() ? top(movies, count) : sort(movies);
+    }
+
+    /**
+     * Selects the first movies in the order of the sorter, without sorting all of them: a heap of at most
+     * {@code count} movies keeps the best ones seen so far.
+     *
+     * @param movies The movies to select from.
+     * @param count The number of movies to keep.
+     * @return The {@code count} first movies (or all the movies if there are fewer), sorted.
+     */
+    public List<Movie> top(Iterable<Movie> movies, int count) {
+
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<SortEntry> worstFirst = new PriorityQueue<>(count, (first, second) -> compare(second, first));
+        int position = 0;
+
+        for (Movie movie : movies) {
+            if (worstFirst.size() < count) {
+                worstFirst.add(new SortEntry(movie, position, keys));
+            }
+            else {
+                SortEntry entry = new SortEntry(movie, position, keys);
+                if (compare(entry, worstFirst.peek()) < 0) {
+                    worstFirst.poll();
+                    worstFirst.add(entry);
+                }
+            }
+            position++;
+        }
+
+        List<SortEntry> entries = new ArrayList<>(worstFirst);
+        entries.sort(this::compare);
+        return moviesOf(entries);
+    }
+
+    /**
+     * Finds where to insert a movie in a list already sorted by this sorter, after the movies equal to it.
+     *
+     * @param sortedMovies The sorted movies.
+     * @param movie The movie to insert.
+     * @return The index at which the movie keeps the list sorted.
+     */
+    public int insertionIndex(List<Movie> sortedMovies, Movie movie) {
+        SortEntry inserted = new SortEntry(movie, Integer.MAX_VALUE, keys);
+        int low = 0;
+        int high = sortedMovies.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(new SortEntry(sortedMovies.get(middle), middle, keys), inserted) <= 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compare(SortEntry first, SortEntry second) {
+
+        for (int i = 0; i < keys.length; i++) {
+            int comparison = keys[i] == SortKey.TITLE
+                    ? first.title.compareTo(second.title)
+                    : Double.compare(second.values[i], first.values[i]);
+
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(first.position, second.position);
+    }
+
+    private SortEntry[] entriesOf(List<Movie> movies) {
+        SortEntry[] entries = new SortEntry[movies.size()];
+
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new SortEntry(movies.get(i), i, keys);
+        }
+        return entries;
+    }
+
+    private static List<Movie> moviesOf(List<SortEntry> entries) {
+        List<Movie> movies = new ArrayList<>(entries.size());
+
+        for (SortEntry entry : entries) {
+            movies.add(entry.movie);
+        }
+        return movies;
+    }
+
+    /**
+     * A movie with its sort keys computed once: the numeric keys as doubles and the title normalized.
+     */
+    private static class SortEntry {
+        private final Movie movie;
+        private final int position;
+        private final double[] values;
+        private final String title;
+
+        private SortEntry(Movie movie, int position, SortKey[] keys) {
+            this.movie = movie;
+            this.position = position;
+            this.values = new double[keys.length];
+            String normalizedTitle = "";
+
+            for (int i = 0; i < keys.length; i++) {
+                switch (keys[i]) {
+                    case POPULARITY -> values[i] = movie.popularity();
+                    case VOTE_AVERAGE -> values[i] = movie.minVoteAverage();
+                    case VOTE_COUNT -> values[i] = movie.voteCount();
+                    case RELEASE_DATE -> values[i] = releaseDateValue(movie.releaseDate());
+                    case TITLE -> normalizedTitle = TextNormalizer.normalize(movie.title());
+                }
+            }
+            this.title = normalizedTitle;
+        }
+    }
+
+    /**
+     * Converts a release date such as "2008-07-16" to a number such as 20080716, -1 if it is not a date.
+     */
+    static int releaseDateValue(String releaseDate) {
+
+        if (releaseDate == null || releaseDate.length() < 10) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = 0; i < 10; i++) {
+            if (i == 4 || i == 7) {
+                continue;
+            }
+            char character = releaseDate.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,97 @@
+package moviesapp.model.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public class ParallelFilter {
+    public static final int PARALLEL_THRESHOLD = 8192;
+    static final int CHUNK_SIZE = 2048;
+
+    private ParallelFilter() {
+    }
+
+    /**
+     * Filters a list and converts the items kept, in parallel when the list is large enough to benefit from it and
+     * the machine has several cores.
+     *
+     * @param items The items to filter, which must support fast random access.
+     * @param predicate The condition of the items to keep, called from several threads.
+     * @param mapper The conversion of the items kept, called from several threads.
+     * @return The converted items, in the order of the list, whether the filter ran in parallel or not.
+     */
+    public static <T, R> List<R> filter(List<T> items, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper) {
+        int threshold = ForkJoinPool.getCommonPoolParallelism() < 2 ? Integer.MAX_VALUE : PARALLEL_THRESHOLD;
+        return filter(items, predicate, mapper, threshold);
+    }
+
+    /**
+     * Filters a list and converts the items kept. Above a threshold, the list is split into chunks filtered by the
+     * threads of the common fork/join pool, and the results of the chunks are concatenated in order.
+     *
+     * @param items The items to filter, which must support fast random access.
+     * @param predicate The condition of the items to keep, called from several threads.
+     * @param mapper The conversion of the items kept, called from several threads.
+     * @param threshold The size from which the list is filtered in parallel.
+     * @return The converted items, in the order of the list.
+     */
+    public static <T, R> List<R> filter(List<T> items, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper,
+                                        int threshold) {
+
+        if (items.size() < threshold) {
+            return filterRange(items, 0, items.size(), predicate, mapper);
+        }
+        return ForkJoinPool.commonPool().invoke(new FilterTask<>(items, 0, items.size(), predicate, mapper));
+    }
+
+    private static <T, R> List<R> filterRange(List<T> items, int from, int to, Predicate<? super T> predicate,
+                                              Function<? super T, ? extends R> mapper) {
+        List<R> kept = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            T item = items.get(i);
+            if (predicate.test(item)) {
+                kept.add(mapper.apply(item));
+            }
+        }
+        return kept;
+    }
+
+    @SuppressWarnings("serial")
+    private static class FilterTask<T, R> extends RecursiveTask<List<R>> {
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final Predicate<? super T> predicate;
+        private final Function<? super T, ? extends R> mapper;
+
+        private FilterTask(List<T> items, int from, int to, Predicate<? super T> predicate, Function<? super T, ? extends R> mapper) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.predicate = predicate;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected List<R> compute() {
+
+            if (to - from <= CHUNK_SIZE) {
+                return filterRange(items, from, to, predicate, mapper);
+            }
+
+            int middle = (from + to) >>> 1;
+            FilterTask<T, R> left = new FilterTask<>(items, from, middle, predicate, mapper);
+            FilterTask<T, R> right = new FilterTask<>(items, middle, to, predicate, mapper);
+
+            left.fork();
+            List<R> rightKept = right.compute();
+            List<R> kept = left.join();
+            kept.addAll(rightKept);
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+
+import java.util.*;
+
+/**
+ * A full-text index of the overviews and titles of movies, ranking the movies matching a text with BM25. The words of
+ * a title count {@link #TITLE_WEIGHT} times as much as the words of the overview, and common English words are not
+ * indexed. The index is updated movie by movie and is not thread-safe.
+ */
+public class PlotIndex {
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int TITLE_WEIGHT = 2;
+    static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "after", "all", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from",
+            "has", "have", "he", "her", "his", "in", "into", "is", "it", "its", "of", "on", "or", "she", "that",
+            "the", "their", "them", "they", "this", "to", "was", "when", "where", "which", "while", "who", "whose",
+            "will", "with");
+
+    private final Map<String, TermPostings> postings = new HashMap<>();
+    private final List<Movie> documents = new ArrayList<>();
+    private final List<String[]> documentTerms = new ArrayList<>();
+    private final Map<String, Integer> documentByMovieId = new HashMap<>();
+    private final Deque<Integer> freeDocuments = new ArrayDeque<>();
+    private int[] documentLengths = new int[16];
+    private long totalLength = 0;
+
+    /**
+     * Indexes the overview and the titles of a movie. A movie already indexed with the same id is replaced.
+     *
+     * @param movie The movie to index.
+     */
+    public void add(Movie movie) {
+        remove(movie.id());
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, movie.overview(), 1);
+        length += addTerms(frequencies, movie.title(), TITLE_WEIGHT);
+        if (!Objects.equals(movie.originalTitle(), movie.title())) {
+            length += addTerms(frequencies, movie.originalTitle(), TITLE_WEIGHT);
+        }
+
+        int document = freeDocuments.isEmpty() ? documents.size() : freeDocuments.pop();
+        if (document == documents.size()) {
+            documents.add(movie);
+            documentTerms.add(frequencies.keySet().toArray(new String[0]));
+        }
+        else {
+            documents.set(document, movie);
+            documentTerms.set(document, frequencies.keySet().toArray(new String[0]));
+        }
+        if (document >= documentLengths.length) {
+            documentLengths = Arrays.copyOf(documentLengths, documentLengths.length * 2);
+        }
+        documentLengths[document] = length;
+        totalLength += length;
+        documentByMovieId.put(movie.id(), document);
+
+        for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            postings.computeIfAbsent(frequency.getKey(), key -> new TermPostings()).add(document, frequency.getValue());
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param movieId The id of the movie to remove.
+     */
+    public void remove(String movieId) {
+        Integer document = documentByMovieId.remove(movieId);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String term : documentTerms.get(document)) {
+            TermPostings termPostings = postings.get(term);
+            termPostings.remove(document);
+            if (termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= documentLengths[document];
+        documentLengths[document] = 0;
+        documents.set(document, null);
+        documentTerms.set(document, null);
+        freeDocuments.push(document);
+    }
+
+    public boolean contains(String movieId) {
+        return documentByMovieId.containsKey(movieId);
+    }
+
+    public int size() {
+        return documentByMovieId.size();
+    }
+
+    public void clear() {
+        postings.clear();
+        documents.clear();
+        documentTerms.clear();
+        documentByMovieId.clear();
+        freeDocuments.clear();
+        totalLength = 0;
+    }
+
+    /**
+     * Searches the movies whose plot or title contains words of a text, the best matches first. A movie scores
+     * more when it contains the rare words of the text, several times, in a short overview.
+     *
+     * @param text The searched words, in any order.
+     * @param limit The maximum number of movies returned.
+     * @return The matching movies, from the highest score to the lowest one, then by popularity. Empty if the text
+     *         has no word other than common ones.
+     */
+    public List<Movie> search(String text, int limit) {
+        Set<String> terms = new LinkedHashSet<>(terms(text));
+        List<Movie> movies = new ArrayList<>();
+
+        if (terms.isEmpty() || documentByMovieId.isEmpty() || limit <= 0) {
+            return movies;
+        }
+
+        int documentCount = documentByMovieId.size();
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+        double[] scores = new double[documents.size()];
+        int[] matched = new int[documents.size()];
+        int matchedCount = 0;
+
+        for (String term : terms) {
+            TermPostings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+
+            double idf = Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+            for (int i = 0; i < termPostings.size; i++) {
+                int document = termPostings.documents[i];
+                int frequency = termPostings.frequencies[i];
+                double normalization = K1 * (1 - B + B * documentLengths[document] / averageLength);
+
+                if (scores[document] == 0) {
+                    matched[matchedCount++] = document;
+                }
+                scores[document] += idf * frequency * (K1 + 1) / (frequency + normalization);
+            }
+        }
+
+        int[] best = best(matched, matchedCount, limit, scores);
+        Integer[] ranked = new Integer[best.length];
+        for (int i = 0; i < best.length; i++) {
+            ranked[i] = best[i];
+        }
+        Arrays.sort(ranked, (first, second) -> compare(first, second, scores));
+
+        for (int document : ranked) {
+            movies.add(documents.get(document));
+        }
+        return movies;
+    }
+
+    /**
+     * Orders two documents from the best one to the worst one: by score, then by popularity.
+     */
+    private int compare(int first, int second, double[] scores) {
+        int comparison = Double.compare(scores[second], scores[first]);
+        return comparison != 0 ? comparison : Double.compare(documents.get(second).popularity(), documents.get(first).popularity());
+    }
+
+    /**
+     * Selects the best matched documents with a heap of at most {@code limit} documents, the worst one at its root,
+     * so that only the documents returned are sorted.
+     */
+    private int[] best(int[] matched, int matchedCount, int limit, double[] scores) {
+
+        if (matchedCount <= limit) {
+            return Arrays.copyOf(matched, matchedCount);
+        }
+
+        int[] heap = Arrays.copyOf(matched, limit);
+        for (int i = limit / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, scores);
+        }
+        for (int i = limit; i < matchedCount; i++) {
+            if (compare(matched[i], heap[0], scores) < 0) {
+                heap[0] = matched[i];
+                siftDown(heap, 0, scores);
+            }
+        }
+        return heap;
+    }
+
+    private void siftDown(int[] heap, int index, double[] scores) {
+
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+
+            if (left < heap.length && compare(heap[left], heap[worst], scores) > 0) {
+                worst = left;
+            }
+            if (right < heap.length && compare(heap[right], heap[worst], scores) > 0) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            int document = heap[index];
+            heap[index] = heap[worst];
+            heap[worst] = document;
+            index = worst;
+        }
+    }
+
+    /**
+     * Splits a text into the terms indexed: its normalized tokens (see {@link TextNormalizer}), without the common
+     * English words.
+     *
+     * @param text The text to split.
+     * @return The terms of the text, in order.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+
+        for (String token : TextNormalizer.tokenize(text)) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = terms(text);
+
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    /**
+     * The documents containing a term with the number of times they contain it, in no particular order.
+     */
+    private static class TermPostings {
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size = 0;
+
+        private void add(int document, int frequency) {
+
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int document) {
+
+            for (int i = 0; i < size; i++) {
+                if (documents[i] == document) {
+                    size--;
+                    documents[i] = documents[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
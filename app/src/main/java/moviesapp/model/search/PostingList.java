@@ -0,0 +1,64 @@
+package moviesapp.model.search;
+
+import java.util.Arrays;
+
+/**
+ * A sorted set of document numbers stored in an int array, without boxing.
+ */
+class PostingList {
+    private int[] documents = new int[4];
+    private int size = 0;
+
+    /**
+     * Adds a document number. Adding a number greater than all the others, the most common case, is an append.
+     *
+     * @param document The document number.
+     */
+    void add(int document) {
+
+        if (size > 0 && documents[size - 1] >= document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position >= 0) {
+                return;
+            }
+            insertAt(-position - 1, document);
+            return;
+        }
+        insertAt(size, document);
+    }
+
+    void remove(int document) {
+        int position = Arrays.binarySearch(documents, 0, size, document);
+
+        if (position >= 0) {
+            System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+            size--;
+        }
+    }
+
+    boolean contains(int document) {
+        return Arrays.binarySearch(documents, 0, size, document) >= 0;
+    }
+
+    int get(int index) {
+        return documents[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void insertAt(int position, int document) {
+
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size * 2);
+        }
+        System.arraycopy(documents, position, documents, position + 1, size - position);
+        documents[position] = document;
+        size++;
+    }
+}
@@ -0,0 +1,208 @@
+package moviesapp.model.search;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * An index of documents sorted by release date. Every entry packs the release date, as an epoch day, and the
+ * document number in a long, so that one sorted array gives both the dates and the permutation of the documents,
+ * and a range of years is found with two binary searches. Documents without a release date are not indexed.
+ * The index is not thread-safe.
+ */
+public class ReleaseDateIndex {
+    public static final int UNKNOWN_DATE = Integer.MIN_VALUE;
+    private static final long DOCUMENT_MASK = 0xFFFFFFFFL;
+
+    private long[] entries = new long[16];
+    private int size = 0;
+
+    /**
+     * Builds an index of many documents at once, sorting the entries once instead of inserting them one by one.
+     *
+     * @param releaseDates The release dates, the document number of a date being its index in the array.
+     * @return The index of the documents having a release date.
+     */
+    public static ReleaseDateIndex of(String[] releaseDates) {
+        ReleaseDateIndex index = new ReleaseDateIndex();
+        index.entries = new long[Math.max(16, releaseDates.length)];
+
+        for (int document = 0; document < releaseDates.length; document++) {
+            int key = keyOf(releaseDates[document]);
+            if (key != UNKNOWN_DATE) {
+                index.entries[index.size++] = entry(key, document);
+            }
+        }
+        Arrays.sort(index.entries, 0, index.size);
+        return index;
+    }
+
+    /**
+     * Indexes a document, inserting its entry at its place in the sorted entries.
+     *
+     * @param document The document number, positive or zero.
+     * @param releaseDate The release date of the document, such as "2008-07-16".
+     * @return {@code true} if the document was indexed, {@code false} if the release date is not a date.
+     */
+    public boolean add(int document, String releaseDate) {
+        int key = keyOf(releaseDate);
+
+        if (key == UNKNOWN_DATE) {
+            return false;
+        }
+
+        long entry = entry(key, document);
+        int position = Arrays.binarySearch(entries, 0, size, entry);
+
+        if (position >= 0) {
+            return true;
+        }
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+
+        position = -position - 1;
+        System.arraycopy(entries, position, entries, position + 1, size - position);
+        entries[position] = entry;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a document from the index.
+     *
+     * @param document The document number.
+     * @param releaseDate The release date the document was indexed with.
+     */
+    public void remove(int document, String releaseDate) {
+        int key = keyOf(releaseDate);
+
+        if (key == UNKNOWN_DATE) {
+            return;
+        }
+
+        int position = Arrays.binarySearch(entries, 0, size, entry(key, document));
+        if (position >= 0) {
+            System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+            size--;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Finds the documents released in a range of years.
+     *
+     * @param minYear The first year of the range, included.
+     * @param maxYear The last year of the range, included.
+     * @return The document numbers, in increasing order.
+     */
+    public int[] documentsInYears(int minYear, int maxYear) {
+        int from = lowerBound(firstEpochDayOf(minYear));
+        int to = lowerBound(firstEpochDayOf(maxYear + 1L));
+        int[] documents = new int[Math.max(0, to - from)];
+
+        for (int i = from; i < to; i++) {
+            documents[i - from] = (int) (entries[i] & DOCUMENT_MASK);
+        }
+        Arrays.sort(documents);
+        return documents;
+    }
+
+    /**
+     * Counts the documents released in a range of years, without listing them.
+     *
+     * @param minYear The first year of the range, included.
+     * @param maxYear The last year of the range, included.
+     * @return The number of documents.
+     */
+    public int countInYears(int minYear, int maxYear) {
+        return Math.max(0, lowerBound(firstEpochDayOf(maxYear + 1L)) - lowerBound(firstEpochDayOf(minYear)));
+    }
+
+    /**
+     * Converts a release date such as "2008-07-16" to a number of days since 1970-01-01.
+     *
+     * @param releaseDate The release date.
+     * @return The epoch day, or {@link #UNKNOWN_DATE} if the text is not a date.
+     */
+    public static int epochDay(String releaseDate) {
+
+        if (releaseDate == null || releaseDate.length() < 10 || releaseDate.charAt(4) != '-' || releaseDate.charAt(7) != '-') {
+            return UNKNOWN_DATE;
+        }
+
+        int year = digits(releaseDate, 0, 4);
+        int month = digits(releaseDate, 5, 7);
+        int day = digits(releaseDate, 8, 10);
+
+        if (year < 0 || month < 0 || day < 0) {
+            return UNKNOWN_DATE;
+        }
+
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        }
+        catch (DateTimeException e) {
+            return UNKNOWN_DATE;
+        }
+    }
+
+    /**
+     * Returns the epoch day of the first day of a year, the year being clamped to the years a date can have.
+     *
+     * @param year The year.
+     * @return The epoch day of January 1st of the year.
+     */
+    public static long firstEpochDayOf(long year) {
+        return LocalDate.of((int) Math.max(-999_999_999L, Math.min(999_999_999L, year)), 1, 1).toEpochDay();
+    }
+
+    /**
+     * Returns the key a release date is indexed with: its epoch day, or the first day of its year when only the
+     * year can be read, as a search by year only reads the year of a release date.
+     */
+    private static int keyOf(String releaseDate) {
+        int epochDay = epochDay(releaseDate);
+
+        if (epochDay != UNKNOWN_DATE || releaseDate == null || releaseDate.length() < 4) {
+            return epochDay;
+        }
+
+        int year = digits(releaseDate, 0, 4);
+        return year < 0 ? UNKNOWN_DATE : (int) firstEpochDayOf(year);
+    }
+
+    private static long entry(long epochDay, int document) {
+        return (epochDay << 32) | (document & DOCUMENT_MASK);
+    }
+
+    /**
+     * Finds the position of the first entry released on or after a day. The day is clamped to the days an entry
+     * can have, so that the packed entry does not overflow.
+     */
+    private int lowerBound(long epochDay) {
+        long entry = entry(Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay)), 0);
+        int position = Arrays.binarySearch(entries, 0, size, entry);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+
+        for (int i = from; i < to; i++) {
+            char character = text.charAt(i);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,88 @@
+package moviesapp.model.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes a text for searching: it is lower-cased and its accents are removed, so that "Amélie" and
+     * "AMELIE" give the same text.
+     *
+     * @param text The text to normalize.
+     * @return The normalized text, empty if the text is null.
+     */
+    public static String normalize(String text) {
+
+        if (text == null) {
+            return "";
+        }
+        if (isAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+
+        for (int i = 0; i < decomposed.length(); i++) {
+            char character = decomposed.charAt(i);
+
+            if (Character.getType(character) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (character) {
+                case 'ß' -> normalized.append("ss");
+                case 'æ', 'Æ' -> normalized.append("ae");
+                case 'œ', 'Œ' -> normalized.append("oe");
+                case 'ø', 'Ø' -> normalized.append('o');
+                case 'ł', 'Ł' -> normalized.append('l');
+                case 'đ', 'Đ' -> normalized.append('d');
+                default -> normalized.append(Character.toLowerCase(character));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Splits a text into normalized tokens: the sequences of letters and digits of the normalized text.
+     *
+     * @param text The text to split.
+     * @return The tokens of the text, in order, empty if the text has none.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            }
+            else if (start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(normalized.substring(start));
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
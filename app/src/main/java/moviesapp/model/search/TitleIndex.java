@@ -0,0 +1,285 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+
+import java.util.*;
+
+/**
+ * An inverted index of the words of the titles of movies. Both the title and the original title of a movie are
+ * indexed, as normalized tokens (see {@link TextNormalizer}) mapped to the movies containing them.
+ * The index is updated movie by movie and is not thread-safe.
+ */
+public class TitleIndex {
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final List<Movie> documents = new ArrayList<>();
+    private final List<String[][]> documentTokens = new ArrayList<>();
+    private final Map<String, Integer> documentByMovieId = new HashMap<>();
+    private final Deque<Integer> freeDocuments = new ArrayDeque<>();
+
+    /**
+     * Indexes the titles of a movie. A movie already indexed with the same id is replaced.
+     *
+     * @param movie The movie to index.
+     */
+    public void add(Movie movie) {
+        remove(movie.id());
+
+        int document = freeDocuments.isEmpty() ? documents.size() : freeDocuments.pop();
+        String[] titleTokens = TextNormalizer.tokenize(movie.title()).toArray(new String[0]);
+        String[] originalTitleTokens = TextNormalizer.tokenize(movie.originalTitle()).toArray(new String[0]);
+        String[][] tokens = Arrays.equals(titleTokens, originalTitleTokens)
+                ? new String[][]{titleTokens}
+                : new String[][]{titleTokens, originalTitleTokens};
+
+        if (document == documents.size()) {
+            documents.add(movie);
+            documentTokens.add(tokens);
+        }
+        else {
+            documents.set(document, movie);
+            documentTokens.set(document, tokens);
+        }
+        documentByMovieId.put(movie.id(), document);
+
+        for (String[] fieldTokens : tokens) {
+            for (String token : fieldTokens) {
+                postings.computeIfAbsent(token, key -> new PostingList()).add(document);
+            }
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param movieId The id of the movie to remove.
+     */
+    public void remove(String movieId) {
+        Integer document = documentByMovieId.remove(movieId);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String[] fieldTokens : documentTokens.get(document)) {
+            for (String token : fieldTokens) {
+                PostingList postingList = postings.get(token);
+                if (postingList != null) {
+                    postingList.remove(document);
+                    if (postingList.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+        documents.set(document, null);
+        documentTokens.set(document, null);
+        freeDocuments.push(document);
+    }
+
+    public boolean contains(String movieId) {
+        return documentByMovieId.containsKey(movieId);
+    }
+
+    public int size() {
+        return documentByMovieId.size();
+    }
+
+    public void clear() {
+        postings.clear();
+        documents.clear();
+        documentTokens.clear();
+        documentByMovieId.clear();
+        freeDocuments.clear();
+    }
+
+    /**
+     * Searches the movies whose title or original title contains every word of a text, the last word being a
+     * prefix so that the search works while the user is typing. A text between double quotes is a phrase: its
+     * words must follow each other in the same title.
+     *
+     * @param text The searched text, for example {@code dark kni} or {@code "the dark"}.
+     * @return The matching movies, in no particular order. Empty if the text has no word.
+     */
+    public List<Movie> search(String text) {
+        boolean phrase = isPhrase(text);
+        List<String> tokens = TextNormalizer.tokenize(text);
+        List<Movie> movies = new ArrayList<>();
+
+        if (tokens.isEmpty()) {
+            return movies;
+        }
+
+        String prefix = tokens.get(tokens.size() - 1);
+        List<String> words = tokens.subList(0, tokens.size() - 1);
+
+        if (words.isEmpty()) {
+            collectPrefixMatches(prefix, movies);
+            return movies;
+        }
+
+        PostingList[] wordPostings = new PostingList[words.size()];
+        for (int i = 0; i < words.size(); i++) {
+            wordPostings[i] = postings.get(words.get(i));
+            if (wordPostings[i] == null) {
+                return movies;
+            }
+        }
+        Arrays.sort(wordPostings, Comparator.comparingInt(PostingList::size));
+
+        PostingList smallest = wordPostings[0];
+        for (int i = 0; i < smallest.size(); i++) {
+            int document = smallest.get(i);
+
+            if (containedInAll(document, wordPostings) && matchesDocument(document, tokens, phrase)) {
+                movies.add(documents.get(document));
+            }
+        }
+        return movies;
+    }
+
+    /**
+     * Checks if the titles of a movie match a text with the rule of {@link #search(String)}, without an index: every
+     * word of the text is a word of the title or of the original title, and the last one is the beginning of a word
+     * of one of them. The searches among the favorites and the search results use this rule too.
+     *
+     * @param text The searched text.
+     * @param title The title of the movie.
+     * @param originalTitle The original title of the movie.
+     * @return {@code true} if the titles match the text, {@code false} otherwise, including when the text has no word.
+     */
+    public static boolean matches(String text, String title, String originalTitle) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+
+        if (tokens.isEmpty()) {
+            return false;
+        }
+
+        String[] titleTokens = TextNormalizer.tokenize(title).toArray(new String[0]);
+        String[] originalTitleTokens = TextNormalizer.tokenize(originalTitle).toArray(new String[0]);
+
+        for (String word : tokens.subList(0, tokens.size() - 1)) {
+            if (!Arrays.asList(titleTokens).contains(word) && !Arrays.asList(originalTitleTokens).contains(word)) {
+                return false;
+            }
+        }
+
+        boolean phrase = isPhrase(text);
+        String prefix = tokens.get(tokens.size() - 1);
+
+        for (String[] fieldTokens : new String[][]{titleTokens, originalTitleTokens}) {
+            if (phrase ? containsPhrase(fieldTokens, tokens) : containsPrefix(fieldTokens, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if every movie matching a text matches a broader text too, with the rule of {@link #search(String)}:
+     * the words of the broader text are words of the text, and its last word begins one of the words of the text.
+     * A broader phrase is only refined by the same phrase.
+     *
+     * @param text The searched text.
+     * @param broaderText The text of a previous search.
+     * @return {@code true} if the movies matching the text are among the movies matching the broader text.
+     */
+    public static boolean refines(String text, String broaderText) {
+        List<String> tokens = TextNormalizer.tokenize(text);
+        List<String> broaderTokens = TextNormalizer.tokenize(broaderText);
+
+        if (isPhrase(broaderText) || tokens.isEmpty() || broaderTokens.isEmpty()) {
+            return isPhrase(text) == isPhrase(broaderText) && tokens.equals(broaderTokens);
+        }
+
+        List<String> words = tokens.subList(0, tokens.size() - 1);
+
+        if (!words.containsAll(broaderTokens.subList(0, broaderTokens.size() - 1))) {
+            return false;
+        }
+
+        String broaderPrefix = broaderTokens.get(broaderTokens.size() - 1);
+
+        for (String token : tokens) {
+            if (token.startsWith(broaderPrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPhrase(String text) {
+        String trimmedText = text == null ? "" : text.trim();
+        return trimmedText.length() > 1 && trimmedText.startsWith("\"") && trimmedText.endsWith("\"");
+    }
+
+    private void collectPrefixMatches(String prefix, List<Movie> movies) {
+        SortedMap<String, PostingList> prefixPostings = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+
+        if (prefixPostings.size() == 1) {
+            PostingList postingList = prefixPostings.values().iterator().next();
+            for (int i = 0; i < postingList.size(); i++) {
+                movies.add(documents.get(postingList.get(i)));
+            }
+            return;
+        }
+
+        BitSet matchingDocuments = new BitSet(documents.size());
+        for (PostingList postingList : prefixPostings.values()) {
+            for (int i = 0; i < postingList.size(); i++) {
+                matchingDocuments.set(postingList.get(i));
+            }
+        }
+        for (int document = matchingDocuments.nextSetBit(0); document >= 0; document = matchingDocuments.nextSetBit(document + 1)) {
+            movies.add(documents.get(document));
+        }
+    }
+
+    private static boolean containedInAll(int document, PostingList[] wordPostings) {
+
+        for (int i = 1; i < wordPostings.length; i++) {
+            if (!wordPostings[i].contains(document)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the prefix of a document already containing every other word, and the order of the words for a phrase.
+     */
+    private boolean matchesDocument(int document, List<String> tokens, boolean phrase) {
+        String prefix = tokens.get(tokens.size() - 1);
+
+        for (String[] fieldTokens : documentTokens.get(document)) {
+            if (phrase ? containsPhrase(fieldTokens, tokens) : containsPrefix(fieldTokens, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsPrefix(String[] fieldTokens, String prefix) {
+
+        for (String token : fieldTokens) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsPhrase(String[] fieldTokens, List<String> tokens) {
+        int last = tokens.size() - 1;
+
+        for (int start = 0; start + last < fieldTokens.length; start++) {
+            int i = 0;
+            while (i < last && fieldTokens[start + i].equals(tokens.get(i))) {
+                i++;
+            }
+            if (i == last && fieldTokens[start + last].startsWith(tokens.get(last))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
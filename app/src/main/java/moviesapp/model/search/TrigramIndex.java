@@ -0,0 +1,174 @@
+package moviesapp.model.search;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.search.FuzzyTitleMatcher.Match;
+
+import java.util.*;
+
+/**
+ * An index of the trigrams (sequences of three characters) of the normalized titles and original titles of movies,
+ * used to find the titles close to a searched title without comparing it to every title.
+ * The index is updated movie by movie and is not thread-safe.
+ */
+public class TrigramIndex {
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final List<Movie> documents = new ArrayList<>();
+    private final List<String[]> documentTitles = new ArrayList<>();
+    private final Map<String, Integer> documentByMovieId = new HashMap<>();
+    private final Deque<Integer> freeDocuments = new ArrayDeque<>();
+    private int[] sharedTrigrams = new int[0];
+    private int[] candidates = new int[0];
+
+    /**
+     * Indexes the titles of a movie. A movie already indexed with the same id is replaced.
+     *
+     * @param movie The movie to index.
+     */
+    public void add(Movie movie) {
+        remove(movie.id());
+
+        int document = freeDocuments.isEmpty() ? documents.size() : freeDocuments.pop();
+        String title = FuzzyTitleMatcher.normalizeTitle(movie.title());
+        String originalTitle = FuzzyTitleMatcher.normalizeTitle(movie.originalTitle());
+        String[] titles = title.equals(originalTitle) ? new String[]{title} : new String[]{title, originalTitle};
+
+        if (document == documents.size()) {
+            documents.add(movie);
+            documentTitles.add(titles);
+        }
+        else {
+            documents.set(document, movie);
+            documentTitles.set(document, titles);
+        }
+        documentByMovieId.put(movie.id(), document);
+
+        for (String trigram : trigramsOf(titles)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(document);
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param movieId The id of the movie to remove.
+     */
+    public void remove(String movieId) {
+        Integer document = documentByMovieId.remove(movieId);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String trigram : trigramsOf(documentTitles.get(document))) {
+            PostingList postingList = postings.get(trigram);
+            if (postingList != null) {
+                postingList.remove(document);
+                if (postingList.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+        documents.set(document, null);
+        documentTitles.set(document, null);
+        freeDocuments.push(document);
+    }
+
+    public int size() {
+        return documentByMovieId.size();
+    }
+
+    public void clear() {
+        postings.clear();
+        documents.clear();
+        documentTitles.clear();
+        documentByMovieId.clear();
+        freeDocuments.clear();
+    }
+
+    /**
+     * Searches the movies whose title or original title contains the searched title with at most a few typing
+     * errors. Only the movies sharing enough trigrams with the searched title are compared to it: each error
+     * changes at most three trigrams.
+     *
+     * @param title The searched title, of at least three characters once normalized.
+     * @return The matching movies, ranked by similarity then by popularity. Empty if the title is too short.
+     */
+    public List<Movie> search(String title) {
+        String query = FuzzyTitleMatcher.normalizeTitle(title);
+        List<Match> matches = new ArrayList<>();
+
+        if (query.length() < 3) {
+            return new ArrayList<>();
+        }
+
+        int maxEdits = FuzzyTitleMatcher.maxEdits(query.length());
+        Set<String> queryTrigrams = new HashSet<>(trigramsOf(new String[]{query}, false));
+        int minSharedTrigrams = Math.max(1, queryTrigrams.size() - 3 * maxEdits);
+        int candidateCount = countSharedTrigrams(queryTrigrams);
+
+        for (int i = 0; i < candidateCount; i++) {
+            int document = candidates[i];
+
+            if (sharedTrigrams[document] >= minSharedTrigrams) {
+                int distance = maxEdits + 1;
+                for (String documentTitle : documentTitles.get(document)) {
+                    distance = Math.min(distance, FuzzyTitleMatcher.distance(query, documentTitle, maxEdits));
+                }
+                if (distance <= maxEdits) {
+                    matches.add(new Match(documents.get(document), FuzzyTitleMatcher.similarity(query, distance)));
+                }
+            }
+            sharedTrigrams[document] = 0;
+        }
+        return FuzzyTitleMatcher.sortMatches(matches);
+    }
+
+    /**
+     * Counts, for every document, the number of trigrams of the query it contains.
+     *
+     * @return The number of documents containing at least one trigram, listed at the beginning of candidates.
+     */
+    private int countSharedTrigrams(Set<String> queryTrigrams) {
+
+        if (sharedTrigrams.length < documents.size()) {
+            sharedTrigrams = new int[documents.size() * 2];
+            candidates = new int[documents.size() * 2];
+        }
+
+        int candidateCount = 0;
+
+        for (String trigram : queryTrigrams) {
+            PostingList postingList = postings.get(trigram);
+            if (postingList == null) {
+                continue;
+            }
+            for (int i = 0; i < postingList.size(); i++) {
+                int document = postingList.get(i);
+                if (sharedTrigrams[document]++ == 0) {
+                    candidates[candidateCount++] = document;
+                }
+            }
+        }
+        return candidateCount;
+    }
+
+    private static Set<String> trigramsOf(String[] titles) {
+        return new HashSet<>(trigramsOf(titles, true));
+    }
+
+    /**
+     * Splits titles into trigrams, the beginning of each title being marked by a space so that its first letters
+     * form trigrams too. The end is marked only for the indexed titles, as a searched title may be incomplete.
+     */
+    private static List<String> trigramsOf(String[] titles, boolean markEnd) {
+        List<String> trigrams = new ArrayList<>();
+
+        for (String title : titles) {
+            String paddedTitle = " " + title + (markEnd ? " " : "");
+            for (int i = 0; i + 3 <= paddedTitle.length(); i++) {
+                trigrams.add(paddedTitle.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,72 @@
+package moviesapp.viewer.images;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BundledImages {
+    public static final BundledImages instance = new BundledImages();
+    public static final String NO_MOVIE_FOUND = "/viewer/images/no-movie-found.jpg";
+    public static final String POSTER_UNAVAILABLE = "/viewer/images/poster-unavailable.jpg";
+
+    private final Map<String, Image> images = new ConcurrentHashMap<>();
+    private final Image posterPlaceholder = createPosterPlaceholder();
+
+    private BundledImages() {
+    }
+
+    /**
+     * Decodes the images used on every render, so that the first render does not have to wait for them.
+     */
+    public void preload() {
+        get(NO_MOVIE_FOUND);
+        get(POSTER_UNAVAILABLE);
+    }
+
+    /**
+     * Retrieves an image bundled with the application. The image is decoded once, on first use, and the same
+     * instance is shared by every image view.
+     *
+     * @param resourcePath The path of the image in the resources.
+     * @return The decoded image.
+     */
+    public Image get(String resourcePath) {
+        return images.computeIfAbsent(resourcePath, path ->
+                new Image(Objects.requireNonNull(BundledImages.class.getResource(path)).toExternalForm()));
+    }
+
+    public Image noMovieFound() {
+        return get(NO_MOVIE_FOUND);
+    }
+
+    public Image posterUnavailable() {
+        return get(POSTER_UNAVAILABLE);
+    }
+
+    /**
+     * Returns the image shown while a poster is loading: a tiny plain image with the ratio of a poster,
+     * stretched by the image views to their size.
+     *
+     * @return The placeholder image.
+     */
+    public Image posterPlaceholder() {
+        return posterPlaceholder;
+    }
+
+    private static Image createPosterPlaceholder() {
+        WritableImage placeholder = new WritableImage(2, 3);
+        PixelWriter pixelWriter = placeholder.getPixelWriter();
+
+        for (int x = 0; x < 2; x++) {
+            for (int y = 0; y < 3; y++) {
+                pixelWriter.setColor(x, y, Color.web("#1b1725"));
+            }
+        }
+        return placeholder;
+    }
+}
@@ -0,0 +1,151 @@
+package moviesapp.viewer.images;
+
+import moviesapp.model.api.ApiMetrics;
+import okhttp3.*;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImageDownloadScheduler {
+
+    /**
+     * Priorities of the downloads, from the most urgent to the least urgent.
+     */
+    public enum Priority { VISIBLE, DETAILS, PREFETCH }
+
+    public static final ImageDownloadScheduler instance = new ImageDownloadScheduler(6);
+
+    private final OkHttpClient client;
+    private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong cancelledDownloads = new AtomicLong();
+
+    public ImageDownloadScheduler(int maxConcurrentDownloads) {
+        client = ApiMetrics.instrument(new OkHttpClient.Builder())
+                .connectionPool(new ConnectionPool(maxConcurrentDownloads, 5, TimeUnit.MINUTES))
+                .connectTimeout(3, TimeUnit.SECONDS)
+                .readTimeout(10, TimeUnit.SECONDS)
+                .build();
+        executor = new ThreadPoolExecutor(maxConcurrentDownloads, maxConcurrentDownloads, 0, TimeUnit.MILLISECONDS, queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-download");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Schedules the download of an image. At most a fixed number of downloads run at the same time, the other ones
+     * wait in a queue ordered by priority, then by scheduling order.
+     *
+     * @param url The URL of the image.
+     * @param priority The priority of the download.
+     * @return The scheduled download.
+     */
+    public Download schedule(String url, Priority priority) {
+        Download download = new Download(url, priority, sequence.getAndIncrement());
+        executor.execute(download);
+        return download;
+    }
+
+    /**
+     * Moves a waiting download up in the queue if the given priority is more urgent than its current one.
+     *
+     * @param download The waiting download.
+     * @param priority The new priority.
+     */
+    public void raisePriority(Download download, Priority priority) {
+
+        synchronized (download) {
+            if (priority.ordinal() >= download.priority.ordinal() || !queue.remove(download)) {
+                return;
+            }
+            download.priority = priority;
+        }
+        queue.offer(download);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCancelledCount() {
+        return cancelledDownloads.get();
+    }
+
+    public class Download implements Runnable, Comparable<Download> {
+        private final String url;
+        private final long order;
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private volatile Priority priority;
+        private volatile Call call;
+
+        private Download(String url, Priority priority, long order) {
+            this.url = url;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+
+            if (result.isDone()) {
+                return;
+            }
+
+            call = client.newCall(new Request.Builder().url(url).build());
+
+            if (result.isDone()) {
+                return;
+            }
+
+            try (Response response = call.execute()) {
+                ResponseBody body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    throw new IOException("Error image request: " + response.code());
+                }
+                result.complete(body.bytes());
+            }
+            catch (IOException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Cancels the download: it is removed from the queue if it is waiting, or its call is cancelled if it is
+         * running. The result completes with a {@link CancellationException}.
+         */
+        public void cancel() {
+
+            if (result.cancel(false)) {
+                cancelledDownloads.incrementAndGet();
+                queue.remove(this);
+
+                Call runningCall = call;
+                if (runningCall != null) {
+                    runningCall.cancel();
+                }
+            }
+        }
+
+        public CompletableFuture<byte[]> getResult() {
+            return result;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(Download other) {
+            int comparison = priority.compareTo(other.priority);
+            return comparison != 0 ? comparison : Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package moviesapp.viewer.images;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ImageMemoryCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes = 0;
+
+    public ImageMemoryCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Retrieves a decoded image and marks it as recently used.
+     *
+     * @param key The key of the image.
+     * @return The image, or null if it is not in the cache.
+     */
+    public synchronized Image get(String key) {
+        return images.get(key);
+    }
+
+    /**
+     * Adds a decoded image to the cache, then evicts the least recently used images until the estimated size of the
+     * cache fits in its bound.
+     *
+     * @param key The key of the image.
+     * @param image The decoded image.
+     */
+    public synchronized void put(String key, Image image) {
+        Image previousImage = images.put(key, image);
+
+        if (previousImage != null) {
+            currentBytes -= estimateBytes(previousImage);
+        }
+        currentBytes += estimateBytes(image);
+
+        Iterator<Map.Entry<String, Image>> iterator = images.entrySet().iterator();
+
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Image> eldest = iterator.next();
+            if (eldest.getValue() == image) {
+                continue;
+            }
+            currentBytes -= estimateBytes(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    /**
+     * Estimates the memory used by a decoded image (4 bytes per pixel).
+     *
+     * @param image The decoded image.
+     * @return The estimated number of bytes.
+     */
+    static long estimateBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
@@ -0,0 +1,251 @@
+package moviesapp.viewer.images;
+
+import javafx.scene.image.Image;
+import moviesapp.model.api.PosterSize;
+import moviesapp.viewer.images.ImageDownloadScheduler.Download;
+import moviesapp.viewer.images.ImageDownloadScheduler.Priority;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static moviesapp.model.api.RequestBuilder.imageBaseURL;
+
+public class PosterCache {
+    public static final PosterCache instance = new PosterCache();
+    static final long maxMemoryBytes = 96L * 1024 * 1024;
+    static final long maxDiskBytes = 200L * 1024 * 1024;
+    static final String diskCachePath = System.getProperty("user.home") + "/.movieland/posters";
+
+    private final ImageMemoryCache memoryCache = new ImageMemoryCache(maxMemoryBytes);
+    private final PosterDiskCache diskCache = new PosterDiskCache(diskCachePath, maxDiskBytes);
+    private final Map<String, PendingLoad> loadsInProgress = new ConcurrentHashMap<>();
+    private final Map<String, String> lastDecodedKeys = new ConcurrentHashMap<>();
+    private final ImageDownloadScheduler downloadScheduler = ImageDownloadScheduler.instance;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "poster-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PosterCache() {
+    }
+
+    /**
+     * Retrieves a poster already decoded in memory.
+     *
+     * @param posterPath The poster_path of the movie.
+     * @param width The width at which the poster is displayed.
+     * @param height The height at which the poster is displayed.
+     * @return The decoded poster, or null if it is not in memory.
+     */
+    public Image getFromMemory(String posterPath, double width, double height) {
+        return memoryCache.get(keyOf(posterPath, PosterSize.closestTo(width).getPath(), width, height));
+    }
+
+    /**
+     * Retrieves the last version of an image decoded in memory, whatever its size. It can be shown at once as a
+     * preview while a version of the right size is loading.
+     *
+     * @param imagePath The poster_path or backdrop_path of the movie.
+     * @return The last decoded version of the image, or null if no version is in memory.
+     */
+    public Image getAnyFromMemory(String imagePath) {
+        String key = lastDecodedKeys.get(imagePath);
+        return key == null ? null : memoryCache.get(key);
+    }
+
+    /**
+     * Loads a poster from memory, then from the disk cache, then from TMDB.
+     * The poster is downloaded in the closest TMDB size and decoded directly at the requested width and height.
+     * The returned future is already completed when the poster is in memory, otherwise it completes on a background
+     * thread. It completes exceptionally if the poster cannot be loaded.
+     *
+     * @param posterPath The poster_path of the movie.
+     * @param width The width at which the poster is displayed.
+     * @param height The height at which the poster is displayed.
+     * @param priority The priority of the download, if the poster has to be downloaded.
+     * @return A future completed with the decoded poster.
+     */
+    public CompletableFuture<Image> load(String posterPath, double width, double height, Priority priority) {
+        return load(posterPath, PosterSize.closestTo(width).getPath(), width, height, priority);
+    }
+
+    /**
+     * Loads an image of a movie in the given TMDB size from memory, then from the disk cache, then from TMDB.
+     * The image is decoded directly at the requested width and height.
+     * Requests for the same image share a single load. Cancelling the returned future withdraws the request: the
+     * download is cancelled once no request needs it anymore.
+     *
+     * @param imagePath The poster_path or backdrop_path of the movie.
+     * @param size The path of the TMDB size, for example "/w500".
+     * @param width The width at which the image is displayed.
+     * @param height The height at which the image is displayed.
+     * @param priority The priority of the download, if the image has to be downloaded.
+     * @return A future completed with the decoded image.
+     */
+    public CompletableFuture<Image> load(String imagePath, String size, double width, double height, Priority priority) {
+        String key = keyOf(imagePath, size, width, height);
+        Image image = memoryCache.get(key);
+
+        if (image != null) {
+            return CompletableFuture.completedFuture(image);
+        }
+
+        PendingLoad[] createdLoad = new PendingLoad[1];
+        PendingLoad pendingLoad = loadsInProgress.compute(key, (newKey, existingLoad) -> {
+            if (existingLoad != null && existingLoad.addRequest(priority)) {
+                return existingLoad;
+            }
+            createdLoad[0] = new PendingLoad(priority);
+            return createdLoad[0];
+        });
+
+        if (createdLoad[0] != null) {
+            start(pendingLoad, key, imagePath, size, width, height);
+        }
+
+        CompletableFuture<Image> request = pendingLoad.image.thenApply(loadedImage -> loadedImage);
+        request.whenComplete((loadedImage, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                withdrawRequest(key, pendingLoad);
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Reads an image from the disk cache, or schedules its download if it is not on disk, then decodes it.
+     */
+    private void start(PendingLoad pendingLoad, String key, String imagePath, String size, double width, double height) {
+        pendingLoad.image.whenComplete((loadedImage, throwable) -> loadsInProgress.remove(key, pendingLoad));
+
+        CompletableFuture.supplyAsync(() -> diskCache.read(imagePath, size), executor)
+                .thenCompose(bytes -> {
+                    if (bytes != null) {
+                        return CompletableFuture.completedFuture(bytes);
+                    }
+                    Download download = pendingLoad.attach(downloadScheduler.schedule(imageBaseURL + size + imagePath, pendingLoad.getPriority()));
+                    return download.getResult().thenApply(downloadedBytes -> {
+                        diskCache.write(imagePath, size, downloadedBytes);
+                        return downloadedBytes;
+                    });
+                })
+                .thenApplyAsync(bytes -> decode(key, imagePath, bytes, width, height), executor)
+                .whenComplete((loadedImage, throwable) -> {
+                    if (throwable == null) {
+                        pendingLoad.image.complete(loadedImage);
+                    }
+                    else {
+                        pendingLoad.image.completeExceptionally(throwable);
+                    }
+                });
+    }
+
+    private Image decode(String key, String imagePath, byte[] bytes, double width, double height) {
+        Image image = new Image(new ByteArrayInputStream(bytes), width, height, true, true);
+
+        if (image.isError()) {
+            throw new CompletionException(image.getException());
+        }
+
+        memoryCache.put(key, image);
+        lastDecodedKeys.put(imagePath, key);
+        return image;
+    }
+
+    private void withdrawRequest(String key, PendingLoad pendingLoad) {
+
+        if (pendingLoad.removeRequest()) {
+            loadsInProgress.remove(key, pendingLoad);
+        }
+    }
+
+    /**
+     * A load shared by every request of the same image, cancelled when its last request is withdrawn.
+     */
+    private class PendingLoad {
+        private final CompletableFuture<Image> image = new CompletableFuture<>();
+        private Priority priority;
+        private Download download;
+        private int requestCount = 1;
+        private boolean cancelled = false;
+
+        private PendingLoad(Priority priority) {
+            this.priority = priority;
+        }
+
+        private synchronized Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Adds a request to the load and raises the priority of its download if needed.
+         *
+         * @param requestPriority The priority of the new request.
+         * @return {@code true} if the request was added, {@code false} if the load is already cancelled.
+         */
+        private synchronized boolean addRequest(Priority requestPriority) {
+
+            if (cancelled) {
+                return false;
+            }
+
+            requestCount++;
+
+            if (requestPriority.ordinal() < priority.ordinal()) {
+                priority = requestPriority;
+                if (download != null) {
+                    downloadScheduler.raisePriority(download, requestPriority);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Withdraws a request and cancels the load if no request remains.
+         *
+         * @return {@code true} if the load has been cancelled, {@code false} otherwise.
+         */
+        private boolean removeRequest() {
+            Download downloadToCancel;
+
+            synchronized (this) {
+                requestCount--;
+                if (requestCount > 0 || cancelled) {
+                    return false;
+                }
+                cancelled = true;
+                downloadToCancel = download;
+            }
+
+            if (downloadToCancel != null) {
+                downloadToCancel.cancel();
+            }
+            image.cancel(false);
+            return true;
+        }
+
+        /**
+         * Attaches the scheduled download to the load, or cancels it if the load has been cancelled meanwhile.
+         *
+         * @param scheduledDownload The download of the image.
+         * @return The same download.
+         */
+        private Download attach(Download scheduledDownload) {
+
+            synchronized (this) {
+                download = scheduledDownload;
+                if (!cancelled) {
+                    return scheduledDownload;
+                }
+            }
+            scheduledDownload.cancel();
+            return scheduledDownload;
+        }
+    }
+
+    private static String keyOf(String imagePath, String size, double width, double height) {
+        return (int) width + "x" + (int) height + size + imagePath;
+    }
+}
@@ -0,0 +1,157 @@
+package moviesapp.viewer.images;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+
+public class PosterDiskCache {
+    private final File directory;
+    private final long maxBytes;
+    private long currentBytes = 0;
+
+    public PosterDiskCache(String directoryPath, long maxBytes) {
+        this.directory = new File(directoryPath);
+        this.maxBytes = maxBytes;
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("Unable to create the poster cache directory: " + directoryPath);
+        }
+
+        for (File file : listCachedFiles()) {
+            currentBytes += file.length();
+        }
+    }
+
+    /**
+     * Reads the bytes of a cached poster and marks it as recently used.
+     *
+     * @param posterPath The poster_path of the movie.
+     * @param size The TMDB size of the poster.
+     * @return The bytes of the poster, or null if it is not in the cache.
+     */
+    public synchronized byte[] read(String posterPath, String size) {
+        File file = fileOf(posterPath, size);
+
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            file.setLastModified(System.currentTimeMillis());
+            return bytes;
+        }
+        catch (IOException e) {
+            System.err.println("IOException from PosterDiskCache.read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the bytes of a poster in the cache, then evicts the least recently used posters until the cache fits in
+     * its quota.
+     *
+     * @param posterPath The poster_path of the movie.
+     * @param size The TMDB size of the poster.
+     * @param bytes The bytes of the poster.
+     */
+    public synchronized void write(String posterPath, String size, byte[] bytes) {
+        File file = fileOf(posterPath, size);
+        Path temporaryFile = null;
+
+        try {
+            temporaryFile = Files.createTempFile(directory.toPath(), "poster", ".tmp");
+            Files.write(temporaryFile, bytes);
+
+            long replacedBytes = file.isFile() ? file.length() : 0;
+            Files.move(temporaryFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            currentBytes += bytes.length - replacedBytes;
+        }
+        catch (IOException e) {
+            System.err.println("IOException from PosterDiskCache.write: " + e.getMessage());
+        }
+        finally {
+            deleteTemporaryFile(temporaryFile);
+        }
+
+        evictUntilUnderQuota(file);
+    }
+
+    private void evictUntilUnderQuota(File fileToKeep) {
+
+        if (currentBytes <= maxBytes) {
+            return;
+        }
+
+        File[] files = listCachedFiles();
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+        for (File file : files) {
+            if (currentBytes <= maxBytes) {
+                return;
+            }
+            if (!file.equals(fileToKeep)) {
+                long length = file.length();
+                if (file.delete()) {
+                    currentBytes -= length;
+                }
+            }
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * Deletes the temporary file of a write that failed, as it is not counted in the size of the cache. Nothing is
+     * done if the file has been moved in place.
+     */
+    private static void deleteTemporaryFile(Path temporaryFile) {
+
+        if (temporaryFile == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(temporaryFile);
+        }
+        catch (IOException e) {
+            System.err.println("IOException from PosterDiskCache.deleteTemporaryFile: " + e.getMessage());
+        }
+    }
+
+    private File[] listCachedFiles() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".img"));
+        return files == null ? new File[0] : files;
+    }
+
+    /**
+     * Returns the file of a poster, named after the hash of its size and poster_path.
+     *
+     * @param posterPath The poster_path of the movie.
+     * @param size The TMDB size of the poster.
+     * @return The file of the poster in the cache directory.
+     */
+    private File fileOf(String posterPath, String size) {
+        return new File(directory, hash(size + posterPath) + ".img");
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+}
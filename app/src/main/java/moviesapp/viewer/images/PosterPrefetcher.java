@@ -0,0 +1,124 @@
+package moviesapp.viewer.images;
+
+import javafx.scene.image.Image;
+import moviesapp.viewer.images.ImageDownloadScheduler.Priority;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+public class PosterPrefetcher {
+    public static final PosterPrefetcher instance = new PosterPrefetcher(3, 24L * 1024 * 1024, 600);
+
+    private final int maxConcurrentPrefetches;
+    private final long maxPrefetchBytes;
+    private final long idleDelayMillis;
+    private final Deque<String> waitingPosterPaths = new ArrayDeque<>();
+    private final List<CompletableFuture<Image>> prefetchesInFlight = new ArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "poster-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> idleStart;
+    private double width;
+    private double height;
+    private long prefetchedBytes = 0;
+    private int round = 0;
+
+    public PosterPrefetcher(int maxConcurrentPrefetches, long maxPrefetchBytes, long idleDelayMillis) {
+        this.maxConcurrentPrefetches = maxConcurrentPrefetches;
+        this.maxPrefetchBytes = maxPrefetchBytes;
+        this.idleDelayMillis = idleDelayMillis;
+    }
+
+    /**
+     * Replaces the posters to prefetch. They are loaded in memory, in the given order, once the user has been idle
+     * for a short time. Their downloads have the lowest priority, at most a few of them run at the same time, and
+     * the prefetch stops once the decoded posters reach a byte quota.
+     *
+     * @param posterPaths The poster_path of the movies, the most likely to be displayed first.
+     * @param width The width at which the posters are displayed.
+     * @param height The height at which the posters are displayed.
+     */
+    public synchronized void prefetch(List<String> posterPaths, double width, double height) {
+        cancel();
+        this.width = width;
+        this.height = height;
+
+        for (String posterPath : posterPaths) {
+            if (posterPath != null && !posterPath.equals("null")) {
+                waitingPosterPaths.add(posterPath);
+            }
+        }
+        scheduleStart();
+    }
+
+    /**
+     * Delays the posters not prefetched yet, because the user is active.
+     */
+    public synchronized void postpone() {
+
+        if (idleStart != null && !idleStart.isDone()) {
+            scheduleStart();
+        }
+    }
+
+    /**
+     * Cancels the prefetch: the waiting posters are dropped and the loads in progress are withdrawn.
+     */
+    public synchronized void cancel() {
+        round++;
+        waitingPosterPaths.clear();
+        prefetchedBytes = 0;
+
+        if (idleStart != null) {
+            idleStart.cancel(false);
+            idleStart = null;
+        }
+
+        for (CompletableFuture<Image> prefetch : new ArrayList<>(prefetchesInFlight)) {
+            prefetch.cancel(false);
+        }
+        prefetchesInFlight.clear();
+    }
+
+    private void scheduleStart() {
+
+        if (idleStart != null) {
+            idleStart.cancel(false);
+        }
+
+        int startRound = round;
+        idleStart = timer.schedule(() -> startPrefetches(startRound), idleDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void startPrefetches(int startRound) {
+
+        while (startRound == round && prefetchesInFlight.size() < maxConcurrentPrefetches
+                && prefetchedBytes < maxPrefetchBytes && !waitingPosterPaths.isEmpty()) {
+            String posterPath = waitingPosterPaths.poll();
+
+            if (PosterCache.instance.getFromMemory(posterPath, width, height) != null) {
+                continue;
+            }
+
+            CompletableFuture<Image> prefetch = PosterCache.instance.load(posterPath, width, height, Priority.PREFETCH);
+            prefetchesInFlight.add(prefetch);
+            prefetch.whenComplete((image, throwable) -> onPrefetched(startRound, prefetch, image));
+        }
+    }
+
+    private synchronized void onPrefetched(int prefetchRound, CompletableFuture<Image> prefetch, Image image) {
+
+        if (prefetchRound != round) {
+            return;
+        }
+
+        prefetchesInFlight.remove(prefetch);
+
+        if (image != null) {
+            prefetchedBytes += ImageMemoryCache.estimateBytes(image);
+        }
+        startPrefetches(prefetchRound);
+    }
+}
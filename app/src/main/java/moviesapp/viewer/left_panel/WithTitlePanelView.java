@@ -3,6 +3,7 @@ package moviesapp.viewer.left_panel;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.Pane;
 import moviesapp.model.api.SearchCriteria;
 
@@ -24,10 +25,12 @@ public class WithTitlePanelView {
     private final Pane yearPane;
     private final Label year;
     private final TextField yearField;
+    private final Pane plotSearchPane;
+    private final ToggleButton plotSearchToggle;
 
     public WithTitlePanelView(Pane leftPane, Button appTitleButton, Pane titleAndSearchPane, Label title, TextField searchBar,
                               Pane yearPane, Label year, TextField yearField, Pane favoritesPane, Button favoritesButton,
-                              Pane goPane, Button goButton) {
+                              Pane goPane, Button goButton, Pane plotSearchPane, ToggleButton plotSearchToggle) {
 
         this.leftPane = leftPane;
         this.appTitleButton = appTitleButton;
@@ -37,6 +40,8 @@ public class WithTitlePanelView {
         this.yearPane = yearPane;
         this.year = year;
         this.yearField = yearField;
+        this.plotSearchPane = plotSearchPane;
+        this.plotSearchToggle = plotSearchToggle;
 
         new FavoritesWithTitleButton(favoritesPane, yearPane, favoritesButton);
         new GoWithTitleButton(goPane, yearPane, goButton);
@@ -50,6 +55,7 @@ public class WithTitlePanelView {
         setSearchBar();
         setYearPane();
         setYear();
+        setPlotSearch();
     }
 
     private void setTitleAndSearchPane(){
@@ -83,6 +89,26 @@ public class WithTitlePanelView {
         yearField.setPromptText("from " + minAcceptableYearValue + " to " + maxAcceptableYearValue);
     }
 
+    /**
+     * Lets the user search the words of the search bar in the plots of the movies already seen instead of their
+     * titles. The year is not used by this search.
+     */
+    private void setPlotSearch(){
+        plotSearchPane.layoutXProperty().bind(yearPane.layoutXProperty().add(60));
+        plotSearchPane.layoutYProperty().bind(yearPane.layoutYProperty().add(60));
+
+        plotSearchToggle.setPrefHeight(26);
+        plotSearchToggle.setPrefWidth(140);
+        plotSearchToggle.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            searchBar.setPromptText(newValue ? "Words of the plot..." : "Search...");
+            yearField.setDisable(newValue);
+        });
+    }
+
+    public boolean isPlotSearch() {
+        return plotSearchToggle.isSelected();
+    }
+
     public SearchCriteria searchCatcherWithTitle() {
         yearField.setStyle(getFieldStyle());
         return new SearchCriteria(searchBar.getText().trim(), yearField.getText().trim(), yearField.getText().trim(), new ArrayList<>(), "", "1");
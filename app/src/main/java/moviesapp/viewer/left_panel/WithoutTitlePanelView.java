@@ -1,12 +1,19 @@
 package moviesapp.viewer.left_panel;
 
+import javafx.collections.ListChangeListener;
 import javafx.scene.control.*;
 import javafx.scene.layout.Pane;
 import moviesapp.model.api.Genres;
 import moviesapp.model.api.SearchCriteria;
+import moviesapp.model.movies.LocalMovies;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.search.FacetCounts;
 import moviesapp.viewer.buttons.WithoutTitleButtons;
 
 import java.util.List;
+import java.util.Map;
+
+import static moviesapp.model.api.Genres.GENRE_NAME_ID_MAP;
 
 import static moviesapp.model.api.RequestBuilder.maxAcceptableYearValue;
 import static moviesapp.model.api.RequestBuilder.minAcceptableYearValue;
@@ -28,6 +35,10 @@ public class WithoutTitlePanelView {
     private final TextField ratingField;
     private final TextField searchBar;
     private final ListView<String> genreListView;
+    private final Label localMatchesLabel = new Label();
+    private final Tooltip decadesTooltip = new Tooltip();
+    private final Tooltip ratingsTooltip = new Tooltip();
+    private FacetCounts facetCounts;
 
     public WithoutTitlePanelView(Pane leftPane, Button appTitleButton, Pane yearsPane, Label years, Label from, TextField minYearField,
                                  Label to, TextField maxYearField, Pane genresPane, Label genres, Pane ratingPane, Label rating, Label atLeast,
@@ -62,6 +73,7 @@ public class WithoutTitlePanelView {
         setGenreListView();
         setRatingPane();
         setRating();
+        setFacetCounts();
     }
 
     private void setYearsPane(){
@@ -122,6 +134,81 @@ public class WithoutTitlePanelView {
         ratingField.setPromptText("0 to 10");
     }
 
+    /**
+     * Shows how many local movies (favorites and cached results) each choice would give: next to each genre, in the
+     * tooltips of the year and rating fields, and the number of local movies matching the current choices. The
+     * counts are updated whenever a genre is toggled or a field is edited.
+     */
+    private void setFacetCounts(){
+        localMatchesLabel.getStyleClass().add("facet-label");
+        localMatchesLabel.layoutXProperty().bind(atLeast.layoutXProperty());
+        localMatchesLabel.layoutYProperty().bind(atLeast.layoutYProperty().add(45));
+        ratingPane.getChildren().add(localMatchesLabel);
+
+        minYearField.setTooltip(decadesTooltip);
+        maxYearField.setTooltip(decadesTooltip);
+        ratingField.setTooltip(ratingsTooltip);
+
+        genreListView.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(String genre, boolean empty) {
+                super.updateItem(genre, empty);
+                setText(empty || genre == null ? null : genre + "  (" + genreCount(genre) + ")");
+            }
+        });
+
+        genreListView.getSelectionModel().getSelectedItems().addListener((ListChangeListener<String>) change -> updateFacetCounts());
+        minYearField.textProperty().addListener((observable, oldValue, newValue) -> updateFacetCounts());
+        maxYearField.textProperty().addListener((observable, oldValue, newValue) -> updateFacetCounts());
+        ratingField.textProperty().addListener((observable, oldValue, newValue) -> updateFacetCounts());
+    }
+
+    /**
+     * Counts again the local movies matching each choice, for the current choices.
+     */
+    public void updateFacetCounts(){
+        List<String> selectedGenresId = Genres.genresToGenreIds(genreListView.getSelectionModel().getSelectedItems());
+        SearchCriteria criteria = new SearchCriteria("", minYearField.getText().trim(), maxYearField.getText().trim(),
+                selectedGenresId, ratingField.getText().trim(), "1");
+
+        facetCounts = LocalMovies.instance.countFacets(MovieQuery.compile(criteria));
+
+        localMatchesLabel.setText(facetCounts.total() + " local matches");
+        decadesTooltip.setText(decadesText());
+        ratingsTooltip.setText(ratingsText());
+        genreListView.refresh();
+    }
+
+    private int genreCount(String genre){
+        String genreId = GENRE_NAME_ID_MAP.get(genre);
+
+        if (facetCounts == null || genreId == null) {
+            return 0;
+        }
+        return facetCounts.genreCount(Integer.parseInt(genreId));
+    }
+
+    private String decadesText(){
+        StringBuilder text = new StringBuilder("Local movies per decade:");
+
+        for (Map.Entry<Integer, Integer> decade : facetCounts.decadeCounts().entrySet()) {
+            text.append("\n  ").append(decade.getKey()).append("s: ").append(decade.getValue());
+        }
+        if (facetCounts.decadeCounts().isEmpty()) {
+            text.append("\n  none");
+        }
+        return text.toString();
+    }
+
+    private String ratingsText(){
+        StringBuilder text = new StringBuilder("Local movies rated at least:");
+
+        for (int rating = 9; rating >= 1; rating--) {
+            text.append("\n  ").append(rating).append(": ").append(facetCounts.countAtLeast(rating));
+        }
+        return text.toString();
+    }
+
     public SearchCriteria searchCatcherWithoutTitle(){
 
         minYearField.setStyle(getFieldStyle());
@@ -1,5 +1,6 @@
 package moviesapp.viewer.new_windows;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -11,10 +12,17 @@ import javafx.scene.paint.Paint;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 import javafx.scene.text.TextFlow;
+import javafx.stage.Screen;
 import javafx.stage.Stage;
-import moviesapp.model.api.RequestBuilder;
+import javafx.stage.WindowEvent;
+import moviesapp.model.api.BackdropSize;
 import moviesapp.model.movies.Favorites;
 import moviesapp.model.movies.Movie;
+import moviesapp.viewer.images.BundledImages;
+import moviesapp.viewer.images.ImageDownloadScheduler.Priority;
+import moviesapp.viewer.images.PosterCache;
+
+import java.util.concurrent.CompletableFuture;
 
 import static moviesapp.controller.GUI.AppController.addButtonClicked;
 import static moviesapp.controller.GUI.AppController.removeButtonClicked;
@@ -26,12 +34,17 @@ public class DetailsWindow {
     @FXML public Button removeButton;
     @FXML public AnchorPane movieDetailsAnchorPane;
     @FXML public ImageView imageView;
+    @FXML public ImageView backdropView;
     @FXML public Label titleLabelAndYear;
     @FXML public Label usefulInformationLabel;
     @FXML public Label popularityLabel;
     @FXML public Label voteAverageLabel;
     @FXML public Label overviewLabel;
     @FXML public TextFlow textFlow;
+    private static final int posterWidth = 280;
+    private static final int posterHeight = 420;
+    private static final int backdropWidth = 900;
+    private static final int backdropHeight = 506;
 
     public DetailsWindow(Movie movie){
         showDetails(movie);
@@ -40,14 +53,15 @@ public class DetailsWindow {
     public void showDetails(Movie movie){
         globalStage = new Stage();
         globalStage.setMinWidth(900);
-        globalStage.setMinHeight(500);
+        globalStage.setMinHeight(530);
         initTextFlow(movie);
 
         initMovieDetailsAnchorPane();
 
         initImageView();
-        Image movieImage = new Image(RequestBuilder.imageBaseURL + RequestBuilder.imageSize + movie.posterPath());
-        imageView.setImage(movieImage);
+        showPoster(movie);
+        initBackdropView();
+        showBackdrop(movie);
 
         initTitleLabelAndYear(movie);
         initUsefulInformationLabel(movie);
@@ -64,10 +78,11 @@ public class DetailsWindow {
             movieDetailsAnchorPane.getChildren().add(addButton);
         }
 
+        movieDetailsAnchorPane.getChildren().add(0, backdropView);
         movieDetailsAnchorPane.getChildren().addAll(imageView,titleLabelAndYear,usefulInformationLabel,popularityLabel,voteAverageLabel,overviewLabel,textFlow);
 
         movieDetailsAnchorPane.setVisible(true);
-        Scene globalScene = new Scene(movieDetailsAnchorPane, 900, 500);
+        Scene globalScene = new Scene(movieDetailsAnchorPane, 900, 530);
         globalStage.setTitle("Details - MovieLand");
         globalStage.setScene(globalScene);
         globalStage.show();
@@ -78,7 +93,7 @@ public class DetailsWindow {
      */
     private void initMovieDetailsAnchorPane(){
         movieDetailsAnchorPane = new AnchorPane();
-        movieDetailsAnchorPane.prefHeight(500);
+        movieDetailsAnchorPane.prefHeight(530);
         movieDetailsAnchorPane.prefWidth(900);
         movieDetailsAnchorPane.setId("movieDetailsAnchorPane");
         movieDetailsAnchorPane.setStyle("-fx-background-image: url('/viewer/images/background-pattern.png'); " +
@@ -92,16 +107,77 @@ public class DetailsWindow {
         imageView = new ImageView();
         imageView.setLayoutX(20);
         imageView.setLayoutY(20);
+        imageView.setFitWidth(posterWidth);
+        imageView.setFitHeight(posterHeight);
+        imageView.setPreserveRatio(true);
         imageView.setStyle("-fx-effect: dropshadow(gaussian, #9d36f7, 15, 0.1, 0, 0)");
     }
 
+    /**
+     * Initialise backdropView, displayed behind the details of the movie
+     */
+    private void initBackdropView(){
+        backdropView = new ImageView();
+        backdropView.setFitWidth(backdropWidth);
+        backdropView.setPreserveRatio(true);
+        backdropView.setOpacity(0.25);
+        backdropView.setMouseTransparent(true);
+    }
+
+    /**
+     * Shows the poster of the movie at once if the grid already decoded it, then loads it at the size of the details,
+     * larger than a grid cell, in background. The TMDB size is chosen like the grid does, so the poster the grid
+     * downloaded is usually read from the disk cache. The loaded poster replaces the preview only if it is larger.
+     * The "poster unavailable" image is shown if the movie has no poster or if no version of it can be loaded.
+     * @param movie the movie of which we want the details
+     */
+    private void showPoster(Movie movie){
+        if(movie.posterPath() == null || movie.posterPath().equals("null")){
+            imageView.setImage(BundledImages.instance.posterUnavailable());
+            return;
+        }
+
+        Image preview = PosterCache.instance.getAnyFromMemory(movie.posterPath());
+        imageView.setImage(preview);
+
+        double scale = Screen.getPrimary().getOutputScaleX();
+        CompletableFuture<Image> poster = PosterCache.instance.load(movie.posterPath(), posterWidth * scale,
+                posterHeight * scale, Priority.DETAILS);
+        globalStage.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> poster.cancel(false));
+        poster.whenComplete((movieImage, throwable) -> Platform.runLater(() -> {
+            if(throwable == null && (preview == null || movieImage.getWidth() > preview.getWidth())){
+                imageView.setImage(movieImage);
+            }
+            else if(preview == null){
+                imageView.setImage(BundledImages.instance.posterUnavailable());
+            }
+        }));
+    }
+
+    /**
+     * Loads the backdrop of the movie in background and shows it behind the details when it is ready
+     * @param movie the movie of which we want the details
+     */
+    private void showBackdrop(Movie movie){
+        if(movie.backdropPath() == null || movie.backdropPath().equals("null")){
+            return;
+        }
+
+        double scale = Screen.getPrimary().getOutputScaleX();
+        String size = BackdropSize.closestTo(backdropWidth * scale).getPath();
+        CompletableFuture<Image> backdrop = PosterCache.instance.load(movie.backdropPath(), size,
+                backdropWidth * scale, backdropHeight * scale, Priority.DETAILS);
+        globalStage.addEventHandler(WindowEvent.WINDOW_HIDDEN, event -> backdrop.cancel(false));
+        backdrop.thenAccept(backdropImage -> Platform.runLater(() -> backdropView.setImage(backdropImage)));
+    }
+
     /**
      * Initialise the title and the release year of the movie
      * @param movie the movie of which we want the details
      */
     private void initTitleLabelAndYear(Movie movie){
-        titleLabelAndYear = new Label(movie.title() + "(" + movie.getReleaseYear() + ")");
-        titleLabelAndYear.setLayoutX(255);
+        titleLabelAndYear = new Label(movie.titleWithReleaseYear());
+        titleLabelAndYear.setLayoutX(315);
         titleLabelAndYear.setLayoutY(-3);
         titleLabelAndYear.setTextFill(Paint.valueOf("white"));
         setGlobalStageWidth(titleLabelAndYear);
@@ -114,7 +190,7 @@ public class DetailsWindow {
      */
     private void initUsefulInformationLabel(Movie movie){
         usefulInformationLabel = new Label(movie.releaseDate() + " (" + movie.originalLanguage() + ") " + movie.genresToString());
-        usefulInformationLabel.setLayoutX(258);
+        usefulInformationLabel.setLayoutX(318);
         usefulInformationLabel.setLayoutY(80);
         usefulInformationLabel.setTextFill(Paint.valueOf("white"));
         setGlobalStageWidth(usefulInformationLabel);
@@ -127,7 +203,7 @@ public class DetailsWindow {
      */
     private void initPopularityLabel(Movie movie){
         popularityLabel = new Label("Popularity: "+ movie.popularity());
-        popularityLabel.setLayoutX(258);
+        popularityLabel.setLayoutX(318);
         popularityLabel.setLayoutY(120);
         popularityLabel.setTextFill(Paint.valueOf("white"));
         setGlobalStageWidth(popularityLabel);
@@ -140,7 +216,7 @@ public class DetailsWindow {
      */
     private void initVoteAverageLabel(Movie movie){
         voteAverageLabel = new Label("Vote Average: "+ movie.minVoteAverage());
-        voteAverageLabel.setLayoutX(258);
+        voteAverageLabel.setLayoutX(318);
         voteAverageLabel.setLayoutY(160);
         voteAverageLabel.setTextFill(Paint.valueOf("white"));
         setGlobalStageWidth(voteAverageLabel);
@@ -152,7 +228,7 @@ public class DetailsWindow {
      */
     private void initOverviewLabel(){
         overviewLabel = new Label("Overview:");
-        overviewLabel.setLayoutX(258);
+        overviewLabel.setLayoutX(318);
         overviewLabel.setLayoutY(210);
         overviewLabel.setTextFill(Paint.valueOf("white"));
         setGlobalStageWidth(overviewLabel);
@@ -165,8 +241,8 @@ public class DetailsWindow {
      */
     private void initTextFlow(Movie movie){
         textFlow = new TextFlow();
-        Text overviewContentText = new Text(movie.overviewToString(72));
-        textFlow.setLayoutX(258);
+        Text overviewContentText = new Text(movie.overviewToString(64));
+        textFlow.setLayoutX(318);
         textFlow.setLayoutY(250);
         textFlow.prefWidth(60);
         textFlow.prefHeight(20);
@@ -184,8 +260,8 @@ public class DetailsWindow {
     private void initRemoveButton(Movie movie){
         removeButton = new Button("Remove From\nFavorites");
         removeButton.setLayoutX(20);
-        removeButton.setLayoutY(390);
-        removeButton.setPrefWidth(220);
+        removeButton.setLayoutY(455);
+        removeButton.setPrefWidth(280);
         removeButton.setPrefHeight(60);
         removeButton.setTextAlignment(TextAlignment.CENTER);
         removeButton.setStyle("-fx-font-family: 'GROBOLD';-fx-font-size: 20px; -fx-text-fill: #e5e5e5; -fx-background-color: #E50914;");
@@ -202,8 +278,8 @@ public class DetailsWindow {
     private void initAddButton(Movie movie){
         addButton = new Button("Add To Favorites");
         addButton.setLayoutX(20);
-        addButton.setLayoutY(390);
-        addButton.setPrefWidth(220);
+        addButton.setLayoutY(455);
+        addButton.setPrefWidth(280);
         addButton.setPrefHeight(60);
         addButton.setTextAlignment(TextAlignment.CENTER);
         addButton.setStyle("-fx-font-family: 'GROBOLD';-fx-font-size: 20px; -fx-text-fill: #e5e5e5; -fx-background-color: #E50914;");
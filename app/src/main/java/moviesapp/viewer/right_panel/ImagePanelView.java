@@ -1,48 +1,73 @@
 package moviesapp.viewer.right_panel;
 
-import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
+import moviesapp.controller.GUI.AppController;
+import moviesapp.model.movies.Favorites;
+import moviesapp.model.movies.FavoritesListener;
 import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MoviePool;
 import moviesapp.model.movies.Movies;
+import moviesapp.model.search.MovieSorter;
+import moviesapp.model.search.MovieSorter.SortKey;
+import moviesapp.viewer.images.BundledImages;
+import moviesapp.viewer.images.PosterPrefetcher;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.List;
 
-import static moviesapp.controller.GUI.AppController.handleClickOnImage;
-import static moviesapp.model.api.RequestBuilder.imageBaseURL;
-import static moviesapp.model.api.RequestBuilder.imageSize;
 import static moviesapp.model.json.JsonReader.SEARCH_READER;
 import static moviesapp.viewer.left_panel.WithoutTitlePanelView.getFieldStyle;
 import static moviesapp.viewer.right_panel.RightPanelView.rightScrollPanePadding;
 
-public class ImagePanelView {
+public class ImagePanelView implements FavoritesListener {
     private final ScrollPane rightScrollPane;
     private final GridPane gridPane;
     private final TextField specificPageField;
     private final HBox pageManagementBox;
+    private final ToggleButton infiniteScrollToggle;
+    private final ComboBox<String> sortComboBox;
     private final int imageWidth = 258;
+    private final int imageHeight = imageWidth * 3 / 2;
     private final int numberOfImagesPerRow = 3;
     private double horizontalGap = 15;
+    private final PosterGrid posterGrid;
+    private final ImageView noMovieFoundView;
+    private final int rowsLeftBeforeNextPage = 2;
+    private boolean pagedResults = false;
+    private boolean showingFavorites = false;
+    private boolean showingLocalResults = false;
+    private List<Movie> results = new ArrayList<>();
+    private final MoviePool.Session session = new MoviePool.Session();
+    private List<Movie> sortedFavorites;
+    private MovieSorter sorter = null;
 
-    public ImagePanelView(GridPane gridPane, ScrollPane rightScrollPane, TextField specificPageField, HBox pageManagementBox) {
+    public ImagePanelView(GridPane gridPane, ScrollPane rightScrollPane, TextField specificPageField, HBox pageManagementBox,
+                          ToggleButton infiniteScrollToggle, ComboBox<String> sortComboBox) {
         this.gridPane = gridPane;
         this.rightScrollPane = rightScrollPane;
         this.specificPageField = specificPageField;
         this.pageManagementBox = pageManagementBox;
+        this.infiniteScrollToggle = infiniteScrollToggle;
+        this.sortComboBox = sortComboBox;
 
         setupView();
+        posterGrid = new PosterGrid(gridPane, rightScrollPane, imageWidth, imageHeight, numberOfImagesPerRow);
+        noMovieFoundView = createNoMovieFoundView();
+        setInfiniteScroll();
+        setSortComboBox();
+        Favorites.addListener(this);
     }
 
     public void setupView() {
         setGridPane();
         setPageManagementBox();
-        setSpecificPageField();
     }
 
     private void setGridPane() {
@@ -66,69 +91,244 @@ public class ImagePanelView {
         });
     }
 
-    private void clearImageDisplay(){
-        gridPane.getChildren().clear();
+    /**
+     * Asks for the next page of results when the user scrolls near the bottom of the grid, if the infinite scroll is
+     * turned on and the grid displays paged results.
+     */
+    private void setInfiniteScroll() {
+        rightScrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            PosterPrefetcher.instance.postpone();
+            if (newValue.doubleValue() > oldValue.doubleValue()) {
+                requestNextPageIfNeeded();
+            }
+        });
+        infiniteScrollToggle.selectedProperty().addListener((observable, oldValue, newValue) -> requestNextPageIfNeeded());
+    }
+
+    /**
+     * Lets the user sort the displayed movies by one key, the other keys breaking the ties.
+     */
+    private void setSortComboBox() {
+        sortComboBox.getItems().add("Default order");
+
+        for (SortKey sortKey : SortKey.values()) {
+            String label = sortKey.getLabel();
+            sortComboBox.getItems().add(label.substring(0, 1).toUpperCase() + label.substring(1));
+        }
+        sortComboBox.getSelectionModel().selectFirst();
+        sortComboBox.getSelectionModel().selectedIndexProperty().addListener((observable, oldValue, newValue) ->
+                setSorter(newValue.intValue() <= 0 ? null : sorterBy(SortKey.values()[newValue.intValue() - 1])));
+    }
+
+    private static MovieSorter sorterBy(SortKey primaryKey) {
+        List<SortKey> keys = new ArrayList<>(List.of(primaryKey));
+
+        for (SortKey tieBreaker : List.of(SortKey.POPULARITY, SortKey.VOTE_COUNT, SortKey.TITLE)) {
+            if (tieBreaker != primaryKey) {
+                keys.add(tieBreaker);
+            }
+        }
+        return new MovieSorter(keys);
+    }
+
+    /**
+     * Displays the current movies again in another order.
+     *
+     * @param sorter The sorter of the movies, null for the order of the results or the reverse order of addition of
+     *               the favorites.
+     */
+    public void setSorter(MovieSorter sorter) {
+        this.sorter = sorter;
+
+        if (showingFavorites) {
+            distributeFavorites(Favorites.inReverseOrder());
+        }
+        else if (pagedResults || showingLocalResults) {
+            displayMovies(sorted(results));
+            pageManagementBox.setVisible(pagedResults && !results.isEmpty());
+        }
+    }
+
+    private List<Movie> sorted(List<Movie> movies) {
+        return sorter == null ? new ArrayList<>(movies) : sorter.sort(movies);
+    }
+
+    private void requestNextPageIfNeeded() {
+        if (infiniteScrollToggle.isSelected() && pagedResults && posterGrid.isNearBottom(rowsLeftBeforeNextPage)) {
+            AppController.handleScrollNearBottom();
+        }
     }
 
+    /**
+     * Displays a page of search results in the grid. Only the visible rows get poster cells, which are recycled
+     * while the user scrolls. The page starts a new session: the pages appended after it leave out the movies
+     * already displayed.
+     *
+     * @param movies The movies to display.
+     */
     public void distributeImages(Movies movies) {
-        clearImageDisplay();
-        rightScrollPane.setVvalue(0.0);
+        pagedResults = true;
+        showingFavorites = false;
+        showingLocalResults = false;
+        session.reset();
+        results = new ArrayList<>(session.admit(movies).getMovieList());
+        displayMovies(sorted(results));
+    }
 
-        int row = 0, col = 0;
+    /**
+     * Displays movies found without request, such as the results of a search by plot, without page management.
+     * Their order is kept unless the user chooses another one.
+     *
+     * @param movies The movies to display, in the order of relevance.
+     */
+    public void distributeLocalResults(Movies movies) {
+        pagedResults = false;
+        showingFavorites = false;
+        showingLocalResults = true;
+        results = movies == null ? new ArrayList<>() : new ArrayList<>(movies.getMovieList());
+        displayMovies(sorted(results));
+        pageManagementBox.setVisible(false);
+    }
 
-        if(movies == null || movies.isEmpty()){
-            pageManagementBox.setVisible(false);
+    /**
+     * Displays the favorite movies in the grid, without page management. The grid then follows the changes of the
+     * favorites, inserting or removing only the poster of the movie concerned, at its place in the chosen order.
+     *
+     * @param favoritesView The favorite movies to display, as a view following the changes of the favorites, from
+     *                      the most recently added to the oldest one.
+     */
+    public void distributeFavorites(List<Movie> favoritesView) {
+        pagedResults = false;
+        showingFavorites = true;
+        showingLocalResults = false;
+        sortedFavorites = sorter == null ? null : sorter.sort(favoritesView);
+        displayMovies(sortedFavorites == null ? favoritesView : sortedFavorites);
+        pageManagementBox.setVisible(false);
+    }
 
-            Image image = new Image(Objects.requireNonNull(getClass().getResource("/viewer/images/no-movie-found.jpg")).toExternalForm());
+    public boolean isShowingFavorites() {
+        return showingFavorites;
+    }
+
+    @Override
+    public void movieAdded(Movie movie, int index) {
 
-            ImageView imageView = new ImageView();
-            imageView.setImage(image);
-            imageView.setPreserveRatio(true);
-            imageView.setFitWidth(imageWidth);
-            gridPane.add(imageView, 0, 0);
-            return;
+        if (showingFavorites && sortedFavorites != null) {
+            int sortedIndex = sorter.insertionIndex(sortedFavorites, movie);
+            sortedFavorites.add(sortedIndex, movie);
+            posterGrid.movieInserted(sortedIndex);
+            showNoMovieFound(Favorites.isEmpty());
+        }
+        else if (showingFavorites) {
+            posterGrid.movieInserted(Favorites.asMovies().size() - 1 - index);
+            showNoMovieFound(Favorites.isEmpty());
         }
+    }
 
-        pageManagementBox.setVisible(true);
-        for(Movie movie : movies) {
-            String moviePosterPath = movie.posterPath();
-            Image image;
-            if(moviePosterPath.equals("null")) {
-                image = new Image(Objects.requireNonNull(getClass().getResource("/viewer/images/poster-unavailable.jpg")).toExternalForm());
-            }
-            else {
-                image = new Image(imageBaseURL + imageSize + moviePosterPath);
+    @Override
+    public void movieRemoved(Movie movie, int index) {
+
+        if (showingFavorites && sortedFavorites != null) {
+            int sortedIndex = indexOfMovie(sortedFavorites, movie);
+            if (sortedIndex >= 0) {
+                sortedFavorites.remove(sortedIndex);
+                posterGrid.movieRemoved(sortedIndex);
             }
-            ImageView imageView = new ImageView();
-            imageView.setImage(image);
-            imageView.setPreserveRatio(true);
-            imageView.setFitWidth(imageWidth);
+            showNoMovieFound(Favorites.isEmpty());
+        }
+        else if (showingFavorites) {
+            posterGrid.movieRemoved(Favorites.asMovies().size() - index);
+            showNoMovieFound(Favorites.isEmpty());
+        }
+    }
+
+    @Override
+    public void favoritesCleared() {
 
-            imageView.setOnMouseClicked(event -> handleClickOnImage(movie));
+        if (showingFavorites) {
+            distributeFavorites(Favorites.inReverseOrder());
+        }
+    }
 
-            gridPane.add(imageView, col, row);
+    private static int indexOfMovie(List<Movie> movies, Movie movie) {
 
-            col++;
-            if(col >= numberOfImagesPerRow) {
-                col = 0;
-                row++;
+        for (int i = 0; i < movies.size(); i++) {
+            if (movies.get(i).id().equals(movie.id())) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    /**
+     * Appends the movies of the next page of results at the end of the grid, without rebuilding the posters already
+     * displayed. When the movies are sorted, the page is sorted on its own, so that the posters already displayed
+     * do not move. The movies of the page already displayed, which the listing moved to the next page between two
+     * requests, are left out.
+     *
+     * @param movies The movies of the next page.
+     */
+    public void appendImages(Movies movies) {
+        updateSpecificPageField();
+
+        if (!showingFavorites && movies != null && !movies.isEmpty()) {
+            List<Movie> newMovies = session.admit(movies).getMovieList();
+            results.addAll(newMovies);
+            posterGrid.appendMovies(sorted(newMovies));
+        }
+    }
+
+    /**
+     * Prefetches the posters the user is likely to display next: the rows of the current results below the
+     * viewport, then the posters of the next page.
+     *
+     * @param nextPageMovies The movies of the next page of results.
+     */
+    public void prefetchPosters(Movies nextPageMovies) {
+        List<String> posterPaths = new ArrayList<>();
+
+        for (Movie movie : posterGrid.getMoviesBelowRenderedRows()) {
+            posterPaths.add(movie.posterPath());
+        }
+        for (Movie movie : nextPageMovies) {
+            posterPaths.add(movie.posterPath());
+        }
+        PosterPrefetcher.instance.prefetch(posterPaths, imageWidth, imageHeight);
+    }
+
+    private void displayMovies(List<Movie> movies) {
+        PosterPrefetcher.instance.cancel();
+        updateSpecificPageField();
+        rightScrollPane.setVvalue(0.0);
+
+        pageManagementBox.setVisible(!movies.isEmpty());
+        showNoMovieFound(movies.isEmpty());
+        posterGrid.setMovies(movies);
+    }
+
+    private void showNoMovieFound(boolean noMovieFound) {
+        noMovieFoundView.setVisible(noMovieFound);
+        noMovieFoundView.setManaged(noMovieFound);
+    }
+
+    private ImageView createNoMovieFoundView() {
+        ImageView imageView = new ImageView();
+        imageView.setImage(BundledImages.instance.noMovieFound());
+        imageView.setPreserveRatio(true);
+        imageView.setFitWidth(imageWidth);
+        imageView.setVisible(false);
+        imageView.setManaged(false);
+        gridPane.add(imageView, 0, 0);
+        return imageView;
     }
 
     private void setPageManagementBox() {
         pageManagementBox.setPadding(new Insets(0, 0, rightScrollPanePadding, 0));
     }
 
-    private void setSpecificPageField() {
-        gridPane.getChildren().addListener((ListChangeListener<Node>) change -> {
-            while (change.next()) {
-                if (change.wasAdded() || change.wasRemoved()) {
-                    specificPageField.setStyle(getFieldStyle());
-                    specificPageField.setPromptText(SEARCH_READER.getPageInJson() + "/" + SEARCH_READER.numberOfPagesOfMoviesInJson());
-                    specificPageField.setText("");
-                }
-            }
-        });
+    private void updateSpecificPageField() {
+        specificPageField.setStyle(getFieldStyle());
+        specificPageField.setPromptText(SEARCH_READER.getPageInJson() + "/" + SEARCH_READER.numberOfPagesOfMoviesInJson());
+        specificPageField.setText("");
     }
 }
@@ -0,0 +1,124 @@
+package moviesapp.viewer.right_panel;
+
+import javafx.application.Platform;
+import javafx.scene.CacheHint;
+import javafx.scene.control.Tooltip;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import moviesapp.model.movies.Movie;
+import moviesapp.viewer.images.BundledImages;
+import moviesapp.viewer.images.ImageDownloadScheduler.Priority;
+import moviesapp.viewer.images.PosterCache;
+
+import java.util.concurrent.CompletableFuture;
+
+import static moviesapp.controller.GUI.AppController.handleClickOnImage;
+
+class PosterCell {
+    private final ImageView imageView = new ImageView();
+    private final Tooltip tooltip = new Tooltip();
+    private final int width;
+    private final int height;
+    private Movie movie;
+    private CompletableFuture<Image> pendingPoster;
+
+    PosterCell(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        imageView.setPreserveRatio(true);
+        imageView.setFitWidth(width);
+        imageView.setFitHeight(height);
+        imageView.setCache(true);
+        imageView.setCacheHint(CacheHint.QUALITY);
+        Tooltip.install(imageView, tooltip);
+        imageView.setOnMouseClicked(event -> {
+            if (movie != null) {
+                handleClickOnImage(movie);
+            }
+        });
+        unbind();
+    }
+
+    ImageView getNode() {
+        return imageView;
+    }
+
+    /**
+     * Uses the cached bitmap of the poster while the grid is scrolled, and a full quality rendering otherwise.
+     *
+     * @param scrolling {@code true} if the grid is being scrolled.
+     */
+    void setScrolling(boolean scrolling) {
+        imageView.setCacheHint(scrolling ? CacheHint.SPEED : CacheHint.QUALITY);
+    }
+
+    /**
+     * Displays a movie in the cell, reusing its node: only the image and the tooltip are changed, and nothing is
+     * done if the cell already displays this movie.
+     * The poster is shown at once if it is already decoded in memory. Otherwise, the placeholder is shown, then the
+     * poster is loaded in background (from the disk cache or from TMDB) and swapped in once it is ready, unless the
+     * cell has been unbound or rebound in the meantime, even to the same movie.
+     * If the poster cannot be loaded, the "poster unavailable" image is shown instead.
+     *
+     * @param movie The movie to display.
+     */
+    void bind(Movie movie) {
+
+        if (movie.equals(this.movie)) {
+            return;
+        }
+
+        cancelPendingPoster();
+        this.movie = movie;
+        tooltip.setText(movie.titleWithReleaseYear());
+
+        if (!imageView.isVisible()) {
+            imageView.setVisible(true);
+            imageView.setManaged(true);
+        }
+
+        String posterPath = movie.posterPath();
+
+        if (posterPath == null || posterPath.equals("null")) {
+            imageView.setImage(BundledImages.instance.posterUnavailable());
+            return;
+        }
+
+        CompletableFuture<Image> poster = PosterCache.instance.load(posterPath, width, height, Priority.VISIBLE);
+
+        if (poster.isDone() && !poster.isCompletedExceptionally()) {
+            imageView.setImage(poster.join());
+            return;
+        }
+
+        imageView.setImage(BundledImages.instance.posterPlaceholder());
+        pendingPoster = poster;
+        poster.whenComplete((image, throwable) -> Platform.runLater(() -> {
+            if (pendingPoster == poster) {
+                pendingPoster = null;
+                imageView.setImage(throwable == null ? image : BundledImages.instance.posterUnavailable());
+            }
+        }));
+    }
+
+    /**
+     * Frees the cell so that it can be bound to another movie. The loading of its poster is cancelled if it is not
+     * over.
+     */
+    void unbind() {
+        cancelPendingPoster();
+        movie = null;
+        imageView.setImage(null);
+        imageView.setVisible(false);
+        imageView.setManaged(false);
+    }
+
+    private void cancelPendingPoster() {
+
+        if (pendingPoster != null) {
+            pendingPoster.cancel(false);
+            pendingPoster = null;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package moviesapp.viewer.right_panel;
+
+import javafx.animation.PauseTransition;
+import javafx.geometry.Insets;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
+import javafx.util.Duration;
+import moviesapp.model.movies.Movie;
+
+import java.util.*;
+
+import static moviesapp.viewer.right_panel.RightPanelView.rightScrollPanePadding;
+
+class PosterGrid {
+    private final GridPane gridPane;
+    private final ScrollPane scrollPane;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int columns;
+    private final int bufferRows = 1;
+    private final Deque<PosterCell> freeCells = new ArrayDeque<>();
+    private final Map<Integer, PosterCell> boundCells = new HashMap<>();
+    private List<Movie> movies = new ArrayList<>();
+    private int firstRenderedRow = 0;
+    private int lastRenderedRow = -1;
+    private int renderedTotalRows = 0;
+    private boolean rebindAll = false;
+    private final PauseTransition scrollEnd = new PauseTransition(Duration.millis(150));
+
+    PosterGrid(GridPane gridPane, ScrollPane scrollPane, int cellWidth, int cellHeight, int columns) {
+        this.gridPane = gridPane;
+        this.scrollPane = scrollPane;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        this.columns = columns;
+
+        scrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> {
+            setScrolling(true);
+            scrollEnd.playFromStart();
+            refreshRenderedRows();
+        });
+        scrollEnd.setOnFinished(event -> setScrolling(false));
+        scrollPane.viewportBoundsProperty().addListener((observable, oldValue, newValue) -> refreshRenderedRows());
+    }
+
+    /**
+     * Replaces the movies of the grid. Only the rows visible in the scroll pane (plus a small buffer) get cells, the
+     * other rows are replaced by padding so that the scroll bar keeps the size of the whole list.
+     * The cells already displayed are bound to the new movies in place, so a new render creates no node.
+     * The list is not copied: it can be a view, and its later changes must be reported to the grid.
+     *
+     * @param movies The movies to display.
+     */
+    void setMovies(List<Movie> movies) {
+        this.movies = movies;
+        rebindAll = true;
+        refreshRenderedRows();
+    }
+
+    /**
+     * Appends movies at the end of the grid. The cells already bound are kept as they are and the scroll position
+     * stays on the same rows.
+     *
+     * @param newMovies The movies to append.
+     */
+    void appendMovies(List<Movie> newMovies) {
+        int rowPitch = rowPitch();
+        double viewportHeight = scrollPane.getViewportBounds().getHeight();
+        double scrollTop = scrollTop(viewportHeight);
+        int oldTotalRows = totalRows();
+
+        movies.addAll(newMovies);
+
+        double newContentHeight = contentHeight() + (double) (totalRows() - oldTotalRows) * rowPitch;
+        refreshRenderedRows();
+
+        if (newContentHeight > viewportHeight) {
+            scrollPane.setVvalue(scrollTop / (newContentHeight - viewportHeight));
+        }
+    }
+
+    /**
+     * Reports that a movie has been inserted in the displayed list. The cells of the following movies move with
+     * them, so only the cell of the inserted movie is bound.
+     *
+     * @param index The index of the inserted movie.
+     */
+    void movieInserted(int index) {
+        Map<Integer, PosterCell> shiftedCells = new HashMap<>();
+
+        for (Map.Entry<Integer, PosterCell> boundCell : boundCells.entrySet()) {
+            int cellIndex = boundCell.getKey();
+            shiftedCells.put(cellIndex >= index ? cellIndex + 1 : cellIndex, boundCell.getValue());
+        }
+        replaceBoundCells(shiftedCells);
+    }
+
+    /**
+     * Reports that a movie has been removed from the displayed list. Its cell is freed and the cells of the
+     * following movies move with them.
+     *
+     * @param index The index the removed movie had.
+     */
+    void movieRemoved(int index) {
+        Map<Integer, PosterCell> shiftedCells = new HashMap<>();
+
+        for (Map.Entry<Integer, PosterCell> boundCell : boundCells.entrySet()) {
+            int cellIndex = boundCell.getKey();
+            if (cellIndex == index) {
+                boundCell.getValue().unbind();
+                freeCells.push(boundCell.getValue());
+            }
+            else {
+                shiftedCells.put(cellIndex > index ? cellIndex - 1 : cellIndex, boundCell.getValue());
+            }
+        }
+        replaceBoundCells(shiftedCells);
+    }
+
+    private void replaceBoundCells(Map<Integer, PosterCell> shiftedCells) {
+        boundCells.clear();
+        boundCells.putAll(shiftedCells);
+        renderedTotalRows = -1;
+        refreshRenderedRows();
+    }
+
+    /**
+     * Checks if the bottom of the viewport is close to the end of the grid.
+     *
+     * @param rows The distance to the end of the grid, in rows.
+     * @return {@code true} if less than the given number of rows remain below the viewport, {@code false} otherwise.
+     */
+    boolean isNearBottom(int rows) {
+        double viewportHeight = scrollPane.getViewportBounds().getHeight();
+        double remainingHeight = contentHeight() - viewportHeight - scrollTop(viewportHeight);
+        return !movies.isEmpty() && remainingHeight <= (double) rows * rowPitch();
+    }
+
+    /**
+     * Returns the movies of the rows below the rendered rows, which are the next ones to be displayed when the user
+     * scrolls down.
+     *
+     * @return The movies below the rendered rows.
+     */
+    List<Movie> getMoviesBelowRenderedRows() {
+        int firstIndexBelow = Math.min(movies.size(), (lastRenderedRow + 1) * columns);
+        return movies.subList(firstIndexBelow, movies.size());
+    }
+
+    /**
+     * Binds cells to the movies of the rows that became visible and frees the cells of the rows that are no longer
+     * visible.
+     */
+    void refreshRenderedRows() {
+        int totalRows = totalRows();
+        int rowPitch = rowPitch();
+        double viewportHeight = scrollPane.getViewportBounds().getHeight();
+
+        if (viewportHeight <= 0) {
+            viewportHeight = 2 * rowPitch;
+        }
+
+        double scrollTop = scrollTop(viewportHeight);
+        int newFirstRow = Math.max(0, (int) (scrollTop / rowPitch) - bufferRows);
+        int newLastRow = Math.min(totalRows - 1, (int) ((scrollTop + viewportHeight) / rowPitch) + bufferRows);
+
+        if (!rebindAll && newFirstRow == firstRenderedRow && newLastRow == lastRenderedRow && totalRows == renderedTotalRows) {
+            return;
+        }
+        firstRenderedRow = newFirstRow;
+        lastRenderedRow = newLastRow;
+        renderedTotalRows = totalRows;
+
+        Iterator<Map.Entry<Integer, PosterCell>> iterator = boundCells.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, PosterCell> boundCell = iterator.next();
+            int row = boundCell.getKey() / columns;
+            if (row < firstRenderedRow || row > lastRenderedRow || boundCell.getKey() >= movies.size()) {
+                boundCell.getValue().unbind();
+                freeCells.push(boundCell.getValue());
+                iterator.remove();
+            }
+        }
+
+        for (int index = firstRenderedRow * columns; index <= lastRenderedRow * columns + columns - 1 && index < movies.size(); index++) {
+            PosterCell cell = boundCells.get(index);
+            if (cell == null) {
+                cell = obtainCell();
+                cell.bind(movies.get(index));
+                boundCells.put(index, cell);
+            }
+            else if (rebindAll) {
+                cell.bind(movies.get(index));
+            }
+            GridPane.setConstraints(cell.getNode(), index % columns, index / columns - firstRenderedRow);
+        }
+
+        rebindAll = false;
+        updateRowsAndPadding(totalRows, rowPitch);
+    }
+
+    /**
+     * Gives the rendered rows a fixed height and replaces the rows before and after them by padding.
+     */
+    private void updateRowsAndPadding(int totalRows, int rowPitch) {
+        int renderedRows = Math.max(0, lastRenderedRow - firstRenderedRow + 1);
+        List<RowConstraints> rowConstraints = gridPane.getRowConstraints();
+
+        while (rowConstraints.size() < renderedRows) {
+            rowConstraints.add(new RowConstraints(cellHeight, cellHeight, cellHeight));
+        }
+        if (rowConstraints.size() > renderedRows) {
+            rowConstraints.subList(renderedRows, rowConstraints.size()).clear();
+        }
+
+        double topPadding = (double) firstRenderedRow * rowPitch;
+        double bottomPadding = (double) Math.max(0, totalRows - 1 - lastRenderedRow) * rowPitch;
+        Insets padding = new Insets(topPadding, 0, bottomPadding + rightScrollPanePadding, 0);
+
+        if (!padding.equals(gridPane.getPadding())) {
+            gridPane.setPadding(padding);
+        }
+    }
+
+    private void setScrolling(boolean scrolling) {
+
+        for (PosterCell cell : boundCells.values()) {
+            cell.setScrolling(scrolling);
+        }
+    }
+
+    private int totalRows() {
+        return (movies.size() + columns - 1) / columns;
+    }
+
+    private int rowPitch() {
+        return cellHeight + (int) gridPane.getVgap();
+    }
+
+    private double scrollTop(double viewportHeight) {
+        return Math.max(0, scrollPane.getVvalue() * (contentHeight() - viewportHeight));
+    }
+
+    private double contentHeight() {
+        return scrollPane.getContent() == null ? 0 : scrollPane.getContent().getLayoutBounds().getHeight();
+    }
+
+    private PosterCell obtainCell() {
+        PosterCell cell = freeCells.poll();
+
+        if (cell == null) {
+            cell = new PosterCell(cellWidth, cellHeight);
+            gridPane.getChildren().add(cell.getNode());
+        }
+        return cell;
+    }
+}
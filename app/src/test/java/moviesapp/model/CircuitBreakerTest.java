@@ -0,0 +1,66 @@
+package moviesapp.model;
+
+import moviesapp.model.api.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static moviesapp.model.api.CircuitBreaker.State.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+    private long now;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setupBeforeEach(){
+        now = 0;
+        circuitBreaker = new CircuitBreaker("test", 3, 1000, () -> now);
+    }
+
+    @Test
+    void testOpensAfterThreshold(){
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+        assertThat(circuitBreaker.getRejectedCallCount()).isEqualTo(1);
+        assertThat(circuitBreaker.getTransitionCount(OPEN)).isEqualTo(1);
+    }
+
+    @Test
+    void testSuccessResetsFailures(){
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+    }
+
+    @Test
+    void testHalfOpenProbe(){
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure();
+        }
+        now = 999;
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+        now = 1000;
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HALF_OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+
+        circuitBreaker.recordFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.getTransitionCount(OPEN)).isEqualTo(2);
+
+        now = 2000;
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        circuitBreaker.recordSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.getTransitionCount(CLOSED)).isEqualTo(1);
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+    }
+}
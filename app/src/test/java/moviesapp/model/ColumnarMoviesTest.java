@@ -0,0 +1,145 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.ColumnarMovies;
+import moviesapp.model.movies.LocalMovies;
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MoviePool;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.movies.Movies;
+import moviesapp.model.search.MovieSorter;
+import moviesapp.model.search.MovieSorter.SortKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ColumnarMoviesTest {
+
+    static List<Movie> randomMovies(int count){
+        Random random = new Random(11);
+        List<Movie> movies = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            String releaseDate = i % 10 == 0 ? "" : String.format("%d-%02d-%02d", 1950 + random.nextInt(70), 1 + random.nextInt(12), 1 + random.nextInt(28));
+            movies.add(new Movie(false,"null",List.of(String.valueOf(random.nextInt(5)), "18"),String.valueOf(i),
+                    i % 3 == 0 ? "fr" : "en","Movie " + i,"overview",random.nextInt(1000) / 10.0,"null",releaseDate,
+                    "Movie " + i,false,random.nextInt(100) / 10.0,random.nextInt(50)));
+        }
+        return movies;
+    }
+
+    @Test
+    void testRowsGiveBackMovies(){
+        List<Movie> movies = randomMovies(100);
+        ColumnarMovies columnarMovies = ColumnarMovies.of(movies);
+
+        assertThat(columnarMovies.size()).isEqualTo(100);
+        for (int row = 0; row < movies.size(); row++) {
+            Movie movie = columnarMovies.get(row);
+            assertThat(movie.popularity()).isEqualTo(movies.get(row).popularity());
+            assertThat(movie.minVoteAverage()).isEqualTo(movies.get(row).minVoteAverage());
+            assertThat(movie.releaseDate()).isEqualTo(movies.get(row).releaseDate());
+            assertThat(movie.genres()).containsExactlyElementsOf(movies.get(row).genres());
+            assertThat(movie.originalLanguage()).isEqualTo(movies.get(row).originalLanguage());
+            assertThat(movie).isEqualTo(movies.get(row));
+            assertThat(columnarMovies.holds(row, movies.get(row))).isTrue();
+        }
+    }
+
+    @Test
+    void testRowsGiveBackSharedInstances(){
+        Movie movie = MoviePool.instance.canonical(movie("col-1").popularity(12.3456789012).voteAverage(7.123456789).build());
+        ColumnarMovies columnarMovies = ColumnarMovies.of(List.of(movie));
+
+        assertThat(columnarMovies.get(0)).isSameAs(movie);
+    }
+
+    @Test
+    void testRemoveMovesLastRow(){
+        List<Movie> movies = randomMovies(4);
+        ColumnarMovies columnarMovies = ColumnarMovies.of(movies);
+
+        assertThat(columnarMovies.remove(1)).isEqualTo(3);
+        assertThat(columnarMovies.size()).isEqualTo(3);
+        assertThat(columnarMovies.get(1)).isEqualTo(movies.get(3));
+        assertThat(columnarMovies.remove(2)).isEqualTo(-1);
+
+        columnarMovies.set(0, movies.get(2));
+        assertThat(columnarMovies.filter(MovieQuery.ALL)).hasSize(2);
+        assertThat(columnarMovies.get(0)).isEqualTo(movies.get(2));
+        assertThat(columnarMovies.holds(0, movies.get(0))).isFalse();
+    }
+
+    @Test
+    void testLocalMoviesSortedPage(){
+        LocalMovies localMovies = new LocalMovies(10);
+        localMovies.cachePage("first", new Movies(new ArrayList<>(List.of(
+                movie("col-10").title("Zyqx Water").popularity(5).releaseDate("1880-01-01").build(),
+                movie("col-11").title("Zyqx City").popularity(9).releaseDate("1881-01-01").genres(List.of("35")).build(),
+                movie("col-12").title("Bright Star").popularity(7).releaseDate("1882-01-01").build()))));
+        localMovies.cachePage("second", new Movies(new ArrayList<>(List.of(
+                movie("col-13").title("Zyqx Star").popularity(8).releaseDate("1883-01-01").build()))));
+
+        MovieQuery genre = MovieQuery.compile("", "188", List.of("18"), "");
+        assertThat(localMovies.findMoviesByQuery(genre, 1, 2, SortKey.POPULARITY).getMovieList()).extracting(Movie::id)
+                .containsExactly("col-13", "col-12");
+        assertThat(localMovies.findMoviesByQuery(genre, 2, 2, SortKey.POPULARITY).getMovieList()).extracting(Movie::id)
+                .containsExactly("col-10");
+        assertThat(localMovies.findMoviesByQuery(MovieQuery.compile("zyqx", "", List.of(), ""), 1, 5, SortKey.TITLE).getMovieList())
+                .extracting(Movie::id).containsExactly("col-11", "col-13", "col-10");
+
+        localMovies.cachePage("first", null);
+        assertThat(localMovies.findMoviesByQuery(genre, 1, 5, SortKey.POPULARITY).getMovieList()).extracting(Movie::id)
+                .containsExactly("col-13");
+        assertThat(localMovies.contains("col-11")).isFalse();
+    }
+
+    @Test
+    void testFilterMatchesQuery(){
+        List<Movie> movies = randomMovies(5000);
+        ColumnarMovies columnarMovies = ColumnarMovies.of(movies);
+        MovieQuery query = MovieQuery.compile("movie 1", "19", List.of("2", "4"), "6.5");
+
+        List<String> expected = movies.stream().filter(query::matches).map(Movie::id).collect(Collectors.toList());
+        List<String> found = new ArrayList<>();
+        for (int row : columnarMovies.filter(query)) {
+            found.add(columnarMovies.get(row).id());
+        }
+
+        assertThat(found).isNotEmpty().isEqualTo(expected);
+        assertThat(columnarMovies.filter(MovieQuery.ALL)).hasSize(5000);
+    }
+
+    @Test
+    void testSortAndPageMatchSorter(){
+        List<Movie> movies = randomMovies(3000);
+        ColumnarMovies columnarMovies = ColumnarMovies.of(movies);
+        int[] rows = columnarMovies.filter(MovieQuery.ALL);
+        SortKey[] keys = {SortKey.VOTE_AVERAGE, SortKey.RELEASE_DATE, SortKey.TITLE};
+
+        List<String> expected = MovieSorter.by(keys).sort(movies).stream().map(Movie::id).collect(Collectors.toList());
+        int[] sorted = columnarMovies.sort(rows, keys);
+
+        assertThat(columnarMovies.top(rows, 40, keys)).containsExactly(Arrays.copyOf(sorted, 40));
+        assertThat(columnarMovies.page(sorted, 2, 20).getMovieList()).extracting(Movie::id)
+                .isEqualTo(expected.subList(20, 40));
+        assertThat(columnarMovies.page(sorted, 200, 20).isEmpty()).isTrue();
+    }
+
+    @Test
+    void testTopKeepsTiedRowsInOrder(){
+        Movie movie = randomMovies(1).get(0);
+        ColumnarMovies columnarMovies = ColumnarMovies.of(List.of(movie, movie, movie, movie));
+        int[] rows = columnarMovies.filter(MovieQuery.ALL);
+
+        assertThat(columnarMovies.sort(rows, SortKey.POPULARITY)).containsExactly(0, 1, 2, 3);
+        assertThat(columnarMovies.top(rows, 3, SortKey.POPULARITY)).containsExactly(0, 1, 2);
+        assertThat(columnarMovies.top(new int[]{3, 1, 2, 0}, 3, SortKey.POPULARITY)).containsExactly(3, 1, 2);
+    }
+}
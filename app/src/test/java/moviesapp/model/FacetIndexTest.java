@@ -0,0 +1,68 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.search.FacetCounts;
+import moviesapp.model.search.FacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class FacetIndexTest {
+
+    FacetIndex facetIndex;
+
+    @BeforeEach
+    void setup(){
+        facetIndex = FacetIndex.of(List.of(
+                movie("1").genres(List.of("28", "12")).releaseDate("1994-05-01").voteAverage(8.1).build(),
+                movie("2").genres(List.of("28")).releaseDate("1999-10-15").voteAverage(6.4).build(),
+                movie("3").genres(List.of("35")).releaseDate("2003-01-20").voteAverage(7.0).build(),
+                movie("4").genres(List.of("35", "18")).releaseDate("").voteAverage(5.5).build()));
+    }
+
+    @Test
+    void testCountsWithoutFilter(){
+        FacetCounts counts = facetIndex.count(MovieQuery.ALL);
+
+        assertThat(counts.total()).isEqualTo(4);
+        assertThat(counts.genreCount(28)).isEqualTo(2);
+        assertThat(counts.genreCount(18)).isEqualTo(1);
+        assertThat(counts.genreCount(99)).isEqualTo(0);
+        assertThat(counts.decadeCounts()).containsExactly(entry(1990, 2), entry(2000, 1));
+        assertThat(counts.countAtLeast(7)).isEqualTo(2);
+        assertThat(counts.countAtLeast(0)).isEqualTo(4);
+    }
+
+    @Test
+    void testFacetIgnoresItsOwnFilter(){
+        FacetCounts counts = facetIndex.count(MovieQuery.compile(null, "199", List.of("35"), null));
+
+        assertThat(counts.total()).isEqualTo(0);
+        assertThat(counts.genreCount(28)).isEqualTo(2);
+        assertThat(counts.genreCount(35)).isEqualTo(0);
+        assertThat(counts.decadeCounts()).containsOnlyKeys(2000);
+        assertThat(counts.countAtLeast(0)).isEqualTo(0);
+
+        counts = facetIndex.count(MovieQuery.compile(null, null, List.of("28"), "7"));
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.countAtLeast(6)).isEqualTo(2);
+    }
+
+    @Test
+    void testIncrementalUpdates(){
+        facetIndex.remove("1");
+        facetIndex.add(movie("3").genres(List.of("28")).releaseDate("2003-01-20").voteAverage(7.0).build());
+        FacetCounts counts = facetIndex.count(MovieQuery.ALL);
+
+        assertThat(facetIndex.size()).isEqualTo(3);
+        assertThat(counts.genreCount(28)).isEqualTo(2);
+        assertThat(counts.genreCount(35)).isEqualTo(1);
+        assertThat(counts.genreCount(12)).isEqualTo(0);
+    }
+}
@@ -1,11 +1,15 @@
 package moviesapp.model;
 
 import moviesapp.model.movies.Favorites;
+import moviesapp.model.movies.FavoritesListener;
 import moviesapp.model.movies.Movie;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -103,6 +107,75 @@ public class FavoritesTest {
         assertEquals(favorites.toString(), indexOfMovie(1) + movie2);
     }
 
+    @Test
+    void testChangeEventsAndReverseOrder(){
+        List<String> events = new ArrayList<>();
+        FavoritesListener listener = new FavoritesListener() {
+            @Override
+            public void movieAdded(Movie movie, int index) {
+                events.add("added " + movie.id() + " at " + index);
+            }
+
+            @Override
+            public void movieRemoved(Movie movie, int index) {
+                events.add("removed " + movie.id() + " at " + index);
+            }
+
+            @Override
+            public void favoritesCleared() {
+                events.add("cleared");
+            }
+        };
+        List<Movie> reverseOrder = Favorites.inReverseOrder();
+        long version = Favorites.getVersion();
+
+        Favorites.addListener(listener);
+        favorites.add(movie1);
+        favorites.add(movie2);
+        favorites.add(movie2);
+        assertThat(reverseOrder).containsExactly(movie2, movie1);
+        favorites.add(movie3);
+        favorites.remove(movie2);
+        assertThat(reverseOrder).containsExactly(movie3, movie1);
+        favorites.clear();
+        Favorites.removeListener(listener);
+        favorites.add(movie1);
+
+        assertThat(events).containsExactly("added 1 at 0", "added 2 at 1", "added 3 at 2", "removed 2 at 1", "cleared");
+        assertThat(Favorites.getVersion()).isEqualTo(version + 6);
+    }
+
+    @Test
+    void testFindByYearsKeepsOrder(){
+        Movie movie4 = new Movie(true,null,null,"4",null,null,null,0,null,"1999-12-31",null,true,0,0);
+        Movie movie5 = new Movie(true,null,null,"5",null,null,null,0,null,"1995-06-01",null,true,0,0);
+        Movie movie6 = new Movie(true,null,null,"6",null,null,null,0,null,"2001-01-01",null,true,0,0);
+
+        favorites.add(movie4);
+        favorites.add(movie1);
+        favorites.add(movie6);
+        favorites.add(movie5);
+        assertThat(favorites.findMovies("", "199", new ArrayList<>(), "").getMovieList()).containsExactly(movie4, movie5);
+
+        favorites.remove(movie4);
+        favorites.add(movie4);
+        assertThat(favorites.findMovies("", "199", new ArrayList<>(), "").getMovieList()).containsExactly(movie5, movie4);
+        assertThat(favorites.findMovies("", "2", new ArrayList<>(), "").getMovieList()).containsExactly(movie6);
+    }
+
+    @Test
+    void testFindByTitleMatchesWordPrefixes(){
+        Movie darkKnight = new Movie(true,null,null,"7",null,"The Dark Knight",null,0,null,"2008-07-16","The Dark Knight",true,0,0);
+        Movie amelie = new Movie(true,null,null,"8",null,"Le Fabuleux Destin d'Amélie Poulain",null,0,null,"2001-04-25","Amélie",true,0,0);
+
+        favorites.add(darkKnight);
+        favorites.add(amelie);
+        assertThat(favorites.findMovies("dar", "", new ArrayList<>(), "").getMovieList()).containsExactly(darkKnight);
+        assertThat(favorites.findMovies("knight dark", "", new ArrayList<>(), "").getMovieList()).containsExactly(darkKnight);
+        assertThat(favorites.findMovies("ark", "", new ArrayList<>(), "").getMovieList()).isEmpty();
+        assertThat(favorites.findMovies("poulain AME", "", new ArrayList<>(), "").getMovieList()).containsExactly(amelie);
+    }
+
     private String indexOfMovie(int index){
         return "| n°0" + index;
     }
@@ -0,0 +1,117 @@
+package moviesapp.model;
+
+import moviesapp.model.api.HybridSearchPlanner;
+import moviesapp.model.api.SearchCriteria;
+import moviesapp.model.movies.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HybridSearchPlannerTest {
+
+    static final int TOTAL_PAGES = 12;
+
+    /**
+     * Returns pages of 20 movies whose vote average is their index in the page modulo 10, and records the pages
+     * requested.
+     */
+    static Function<String, String> fakeApi(Set<Integer> requestedPages){
+        return url -> {
+            int page = Integer.parseInt(url.substring(url.lastIndexOf("&page=") + 6));
+            requestedPages.add(page);
+            StringBuilder body = new StringBuilder("{\"page\":" + page + ",\"total_pages\":" + TOTAL_PAGES + ",\"results\":[");
+
+            for (int i = 0; i < 20; i++) {
+                body.append(i == 0 ? "" : ",").append("{\"adult\":false,\"backdrop_path\":\"b\",\"genre_ids\":[")
+                        .append(i % 2 == 0 ? 18 : 35).append("],\"id\":").append(page * 100 + i)
+                        .append(",\"original_language\":\"en\",\"original_title\":\"Dark ").append(i)
+                        .append("\",\"overview\":\"o\",\"popularity\":1,\"poster_path\":\"p\",\"release_date\":\"2010-01-01\",")
+                        .append("\"title\":\"Dark ").append(i).append("\",\"video\":false,\"vote_average\":").append(i % 10)
+                        .append(",\"vote_count\":1}");
+            }
+            return body.append("]}").toString();
+        };
+    }
+
+    @Test
+    void testNeedsPostFiltering(){
+        assertThat(HybridSearchPlanner.needsPostFiltering(new SearchCriteria("dark", "", "", new ArrayList<>(), "", "1"))).isFalse();
+        assertThat(HybridSearchPlanner.needsPostFiltering(new SearchCriteria("dark", "2008", "2008", new ArrayList<>(), "", "1"))).isFalse();
+        assertThat(HybridSearchPlanner.needsPostFiltering(new SearchCriteria("dark", "2000", "2008", new ArrayList<>(), "", "1"))).isTrue();
+        assertThat(HybridSearchPlanner.needsPostFiltering(new SearchCriteria("dark", "", "", List.of("18"), "", "1"))).isTrue();
+        assertThat(HybridSearchPlanner.needsPostFiltering(new SearchCriteria("", "", "", List.of("18"), "7", "1"))).isFalse();
+    }
+
+    @Test
+    void testStopsWhenDisplayPageIsFilled(){
+        Set<Integer> requestedPages = ConcurrentHashMap.newKeySet();
+        SearchCriteria criteria = new SearchCriteria("dark", "", "", List.of("18"), "4", "1");
+
+        HybridSearchPlanner.Result result = HybridSearchPlanner.search(criteria, fakeApi(requestedPages), 20, 50);
+
+        assertThat(result.movies().size()).isEqualTo(20);
+        assertThat(result.movies().getMovieList()).allMatch(movie -> movie.minVoteAverage() >= 4 && movie.genres().contains("18"));
+        assertThat(result.movies().getMovieList().subList(0, 8)).extracting(Movie::id)
+                .containsExactly("104", "106", "108", "114", "116", "118", "204", "206");
+        assertThat(result.pagesFetched()).isEqualTo(requestedPages.size()).isLessThan(TOTAL_PAGES);
+        assertThat(result.totalPages()).isEqualTo(TOTAL_PAGES);
+        assertThat(result.body()).contains("\"page\":1", "\"total_pages\":2", "\"id\":404");
+        assertThat(result.next()).isEqualTo(new HybridSearchPlanner.Continuation(4, 7));
+    }
+
+    @Test
+    void testResumesFromContinuation(){
+        SearchCriteria criteria = new SearchCriteria("dark", "", "", List.of("18"), "4", "1");
+        HybridSearchPlanner.Result firstPage = HybridSearchPlanner.search(criteria, fakeApi(ConcurrentHashMap.newKeySet()), 20, 50);
+
+        Set<Integer> requestedPages = ConcurrentHashMap.newKeySet();
+        HybridSearchPlanner.Result secondPage = HybridSearchPlanner.search(criteria, 2, firstPage.next(), fakeApi(requestedPages), 20, 50);
+
+        assertThat(requestedPages).doesNotContain(1, 2, 3);
+        assertThat(secondPage.movies().getMovieList().subList(0, 5)).extracting(Movie::id)
+                .containsExactly("408", "414", "416", "418", "504");
+        assertThat(secondPage.movies().getMovieList()).extracting(Movie::id)
+                .doesNotContainAnyElementsOf(firstPage.movies().getMovieList().stream().map(Movie::id).toList());
+        assertThat(secondPage.body()).contains("\"page\":2", "\"total_pages\":3");
+        assertThat(secondPage.next()).isEqualTo(new HybridSearchPlanner.Continuation(7, 15));
+    }
+
+    @Test
+    void testLastDisplayPage(){
+        SearchCriteria criteria = new SearchCriteria("dark", "", "", List.of("18"), "4", "1");
+
+        HybridSearchPlanner.Result result = HybridSearchPlanner.search(criteria, 3, new HybridSearchPlanner.Continuation(11, 0),
+                fakeApi(ConcurrentHashMap.newKeySet()), 20, 50);
+
+        assertThat(result.movies().size()).isEqualTo(12);
+        assertThat(result.next()).isNull();
+        assertThat(result.body()).contains("\"page\":3", "\"total_pages\":3");
+    }
+
+    @Test
+    void testPageBudget(){
+        Set<Integer> requestedPages = ConcurrentHashMap.newKeySet();
+        SearchCriteria criteria = new SearchCriteria("dark", "", "", List.of("35"), "9", "1");
+
+        HybridSearchPlanner.Result result = HybridSearchPlanner.search(criteria, fakeApi(requestedPages), 20, 5);
+
+        assertThat(requestedPages).containsExactlyInAnyOrder(1, 2, 3, 4, 5);
+        assertThat(result.movies().getMovieList()).extracting(Movie::id).containsExactly("109", "119", "209", "219", "309", "319", "409", "419", "509", "519");
+        assertThat(result.next()).isEqualTo(new HybridSearchPlanner.Continuation(6, 0));
+    }
+
+    @Test
+    void testFirstPageFailure(){
+        HybridSearchPlanner.Result result = HybridSearchPlanner.search(new SearchCriteria("dark", "", "", List.of("35"), "", "1"), url -> null, 20, 5);
+
+        assertThat(result.body()).isNull();
+        assertThat(result.movies().isEmpty()).isTrue();
+        assertThat(result.next()).isNull();
+    }
+}
@@ -5,6 +5,9 @@ import moviesapp.model.json.JsonReader;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -80,4 +83,15 @@ public class JsonReaderTest {
         assertThat(movieList.get(9).voteCount() == 4).isTrue();
         assertThat(movieList.size() == 10).isTrue();
     }
+
+    @Test
+    void testMoviesFromJson() throws IOException {
+        String json = Files.readString(Path.of(System.getProperty("user.dir") + "/src/test/resources/data-example.json"));
+        Movies movieList = JsonReader.moviesFromJson(json);
+        assertThat(movieList.size()).isEqualTo(10);
+        assertThat(movieList.get(0).title()).isEqualTo("Monkeyshines, No. 1");
+        assertThat(movieList.get(9).voteCount()).isEqualTo(4);
+
+        assertThat(JsonReader.moviesFromJson("not json").isEmpty()).isTrue();
+    }
 }
@@ -0,0 +1,36 @@
+package moviesapp.model;
+
+import moviesapp.model.api.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogram(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getAverageMillis()).isEqualTo(0);
+        assertThat(histogram.getPercentileMillis(95)).isEqualTo(0);
+    }
+
+    @Test
+    void testRecord(){
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 9; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(700));
+        histogram.record(-1);
+
+        assertThat(histogram.getCount()).isEqualTo(10);
+        assertThat(histogram.getAverageMillis()).isEqualTo(88);
+        assertThat(histogram.getMaxMillis()).isEqualTo(700);
+        assertThat(histogram.getPercentileMillis(50)).isEqualTo(25);
+        assertThat(histogram.getPercentileMillis(95)).isEqualTo(700);
+        assertThat(histogram.toJsonFormat()).contains("\"le_25\" : 9", "\"le_1000\" : 1");
+    }
+}
@@ -0,0 +1,68 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MoviePool;
+import moviesapp.model.movies.Movies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoviePoolTest {
+
+    MoviePool moviePool;
+
+    @BeforeEach
+    void setup(){
+        moviePool = new MoviePool();
+    }
+
+    @Test
+    void testCanonical(){
+        Movie first = moviePool.canonical(movie("1").popularity(40).build());
+
+        assertThat(moviePool.canonical(movie("1").popularity(40).build())).isSameAs(first);
+
+        Movie updated = movie("1").popularity(55).build();
+        assertThat(moviePool.canonical(updated)).isSameAs(updated);
+        assertThat(moviePool.canonical(movie("1").popularity(55).build())).isSameAs(updated);
+        assertThat(moviePool.canonical((Movie) null)).isNull();
+        assertThat(moviePool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testUnusedMoviesAreCollected() throws InterruptedException {
+        List<Movie> kept = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Movie movie = moviePool.canonical(movie(String.valueOf(i)).popularity(i).build());
+            if (i % 10 == 0) {
+                kept.add(movie);
+            }
+        }
+
+        for (int attempt = 0; attempt < 50 && moviePool.size() > kept.size(); attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(moviePool.size()).isEqualTo(kept.size());
+        assertThat(moviePool.canonical(movie("10").popularity(10).build())).isSameAs(kept.get(1));
+    }
+
+    @Test
+    void testSessionLeavesOutMoviesAlreadySeen(){
+        MoviePool.Session session = new MoviePool.Session();
+        Movies firstPage = new Movies(new ArrayList<>(List.of(movie("1").build(), movie("2").build(), movie("3").build())));
+        Movies secondPage = new Movies(new ArrayList<>(List.of(movie("3").build(), movie("4").build(), movie("4").build())));
+
+        assertThat(session.admit(firstPage).getMovieList()).extracting(Movie::id).containsExactly("1", "2", "3");
+        assertThat(session.admit(secondPage).getMovieList()).extracting(Movie::id).containsExactly("4");
+        assertThat(session.size()).isEqualTo(4);
+
+        session.reset();
+        assertThat(session.admit(secondPage).getMovieList()).extracting(Movie::id).containsExactly("3", "4");
+    }
+}
@@ -0,0 +1,87 @@
+package moviesapp.model;
+
+import moviesapp.model.api.SearchCriteria;
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static moviesapp.model.api.Genres.GENRE_NAME_ID_MAP;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MovieQueryTest {
+
+    static Movie movie;
+
+    @BeforeAll
+    static void setup(){
+        GENRE_NAME_ID_MAP.put("Action", "28");
+        GENRE_NAME_ID_MAP.put("Comedy", "35");
+
+        movie = new Movie(false,"backdropPath",List.of("28","12"),"1","en",
+                "The Dark Knight","overview",2,"posterPath","2008-07-16",
+                "The Dark Knight",false,8.5,4);
+    }
+
+    @AfterAll
+    static void tearDown(){
+        GENRE_NAME_ID_MAP.clear();
+    }
+
+    @Test
+    void testTitle(){
+        assertThat(MovieQuery.compile("dark KNIGHT", null, null, null).matches(movie)).isTrue();
+        assertThat(MovieQuery.compile("batman", null, null, null).matches(movie)).isFalse();
+        assertThat(MovieQuery.compile("", "", List.of(), "").matches(movie)).isTrue();
+    }
+
+    @Test
+    void testReleaseYearPrefix(){
+        MovieQuery decade = MovieQuery.compile(null, "200", null, null);
+        assertThat(decade.getMinYear()).isEqualTo(2000);
+        assertThat(decade.getMaxYear()).isEqualTo(2009);
+        assertThat(decade.matches(movie)).isTrue();
+
+        assertThat(MovieQuery.compile(null, "2008", null, null).matches(movie)).isTrue();
+        assertThat(MovieQuery.compile(null, "2009", null, null).matches(movie)).isFalse();
+        assertThat(MovieQuery.compile(null, "20a8", null, null).matches(movie)).isFalse();
+    }
+
+    @Test
+    void testGenresAndVoteAverage(){
+        assertThat(MovieQuery.compile(null, null, List.of("action"), null).matches(movie)).isTrue();
+        assertThat(MovieQuery.compile(null, null, List.of("35", "12"), null).matches(movie)).isTrue();
+        assertThat(MovieQuery.compile(null, null, List.of("Comedy"), null).matches(movie)).isFalse();
+        assertThat(MovieQuery.compile(null, null, List.of("Unknown"), null).matches(movie)).isFalse();
+
+        assertThat(MovieQuery.compile(null, null, null, "8.5").matches(movie)).isTrue();
+        assertThat(MovieQuery.compile(null, null, null, "9").matches(movie)).isFalse();
+    }
+
+    @Test
+    void testCompileSearchCriteria(){
+        SearchCriteria criteria = new SearchCriteria("knight", "2005", "2010", List.of("28"), "7", "3");
+        MovieQuery query = MovieQuery.compile(criteria);
+
+        assertThat(query.matches(movie)).isTrue();
+        assertThat(query).isEqualTo(MovieQuery.compile(new SearchCriteria("Knight", "2005", "2010", List.of("Action"), "7.0", "1")));
+        assertThat(query.hashCode()).isEqualTo(MovieQuery.compile(new SearchCriteria("KNIGHT", "2005", "2010", List.of("28"), "7", "1")).hashCode());
+        assertThat(MovieQuery.compile(new SearchCriteria("", "2009", "", List.of(), "", "1")).matches(movie)).isFalse();
+    }
+
+    @Test
+    void testRefines(){
+        MovieQuery broad = MovieQuery.compile("dark", "20", List.of("28", "35"), "5");
+
+        assertThat(MovieQuery.compile("the DARK knight", "2008", List.of("28"), "7").refines(broad)).isTrue();
+        assertThat(MovieQuery.compile("dark", "20", List.of("28", "35"), "5").refines(broad)).isTrue();
+        assertThat(broad.refines(MovieQuery.ALL)).isTrue();
+        assertThat(MovieQuery.compile("knight", "2008", List.of("28"), "7").refines(broad)).isFalse();
+        assertThat(MovieQuery.compile("dark", "19", List.of("28"), "7").refines(broad)).isFalse();
+        assertThat(MovieQuery.compile("dark", "2008", null, "7").refines(broad)).isFalse();
+        assertThat(MovieQuery.compile("dark", "2008", List.of("28"), "4").refines(broad)).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.search.MovieSorter;
+import moviesapp.model.search.MovieSorter.SortKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MovieSorterTest {
+
+    static List<Movie> movies;
+
+    @BeforeAll
+    static void setup(){
+        movies = List.of(
+                movie("1").title("Zodiac").popularity(50).voteAverage(7.5).voteCount(900).releaseDate("2007-03-02").build(),
+                movie("2").title("Élite").popularity(80).voteAverage(7.5).voteCount(300).releaseDate("2018-10-05").build(),
+                movie("3").title("Alien").popularity(50).voteAverage(8.1).voteCount(900).releaseDate("1979-05-25").build(),
+                movie("4").title("Brazil").popularity(10).voteAverage(7.5).voteCount(900).releaseDate("").build());
+    }
+
+    @Test
+    void testSingleKeys(){
+        assertThat(MovieSorter.by(SortKey.POPULARITY).sort(movies)).extracting(Movie::id).containsExactly("2", "1", "3", "4");
+        assertThat(MovieSorter.by(SortKey.RELEASE_DATE).sort(movies)).extracting(Movie::id).containsExactly("2", "1", "3", "4");
+        assertThat(MovieSorter.by(SortKey.TITLE).sort(movies)).extracting(Movie::id).containsExactly("3", "4", "2", "1");
+    }
+
+    @Test
+    void testMultiKeysAreStable(){
+        assertThat(MovieSorter.by(SortKey.VOTE_AVERAGE, SortKey.VOTE_COUNT).sort(movies))
+                .extracting(Movie::id).containsExactly("3", "1", "4", "2");
+        assertThat(MovieSorter.by(SortKey.VOTE_COUNT).sort(movies))
+                .extracting(Movie::id).containsExactly("1", "3", "4", "2");
+    }
+
+    @Test
+    void testTopMatchesSort(){
+        Random random = new Random(7);
+        List<Movie> manyMovies = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            manyMovies.add(movie(String.valueOf(i)).title("Movie " + i).popularity(random.nextInt(100)).voteAverage(random.nextInt(10))
+                    .voteCount(random.nextInt(50)).releaseDate("2000-01-01").build());
+        }
+
+        MovieSorter sorter = MovieSorter.by(SortKey.POPULARITY, SortKey.VOTE_AVERAGE);
+        assertThat(sorter.top(manyMovies, 50)).isEqualTo(sorter.sort(manyMovies).subList(0, 50));
+        assertThat(sorter.sort(movies, 10)).hasSize(4);
+    }
+
+    @Test
+    void testInsertionIndex(){
+        MovieSorter sorter = MovieSorter.by(SortKey.POPULARITY);
+        List<Movie> sortedMovies = new ArrayList<>(sorter.sort(movies));
+
+        Movie heat = movie("5").title("Heat").popularity(50).voteAverage(8).releaseDate("").build();
+        Movie ran = movie("6").title("Ran").popularity(99).voteAverage(8).releaseDate("").build();
+
+        assertThat(sorter.insertionIndex(sortedMovies, heat)).isEqualTo(3);
+        assertThat(sorter.insertionIndex(sortedMovies, ran)).isEqualTo(0);
+    }
+}
@@ -46,6 +46,21 @@ public class MovieTest {
         assertThat(movie1.toString()).isEqualTo(expectedString);
     }
 
+    @Test
+    void testReleaseYear(){
+        Movie released = new Movie(true,"backdropPath",genres,"1","originalLanguage",
+                "originalTitle","overview",2,"posterPath","2008-07-16",
+                "title",false,3,4);
+        Movie unreleased = new Movie(true,"backdropPath",genres,"2","originalLanguage",
+                "originalTitle","overview",2,"posterPath","",
+                "title",false,3,4);
+
+        assertThat(released.getReleaseYear()).isEqualTo("2008");
+        assertThat(released.titleWithReleaseYear()).isEqualTo("title (2008)");
+        assertThat(unreleased.getReleaseYear()).isEmpty();
+        assertThat(unreleased.titleWithReleaseYear()).isEqualTo("title");
+    }
+
     @Test
     void testToJsonFormat() {
         Movie movie = new Movie(
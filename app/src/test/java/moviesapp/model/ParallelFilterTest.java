@@ -0,0 +1,46 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.search.ParallelFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelFilterTest {
+
+    @Test
+    void testParallelKeepsOrder(){
+        List<Integer> numbers = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+
+        List<String> sequential = ParallelFilter.filter(numbers, number -> number % 7 == 0, String::valueOf, Integer.MAX_VALUE);
+        List<String> parallel = ParallelFilter.filter(numbers, number -> number % 7 == 0, String::valueOf, 0);
+
+        assertThat(parallel).hasSize(7143).isEqualTo(sequential);
+        assertThat(parallel.get(1)).isEqualTo("7");
+    }
+
+    @Test
+    void testParallelQuery(){
+        Random random = new Random(3);
+        List<Movie> movies = new ArrayList<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            movies.add(new Movie(false,"null",List.of(String.valueOf(random.nextInt(5))),String.valueOf(i),"en",
+                    "Movie " + i,"overview",1,"null",(1950 + random.nextInt(70)) + "-01-01","Movie " + i,false,
+                    random.nextInt(11),1));
+        }
+
+        MovieQuery query = MovieQuery.compile("movie 1", "19", List.of("2", "4"), "6");
+        List<Movie> parallel = ParallelFilter.filter(movies, query::matches, movie -> movie, 0);
+
+        assertThat(parallel).isEqualTo(movies.stream().filter(query::matches).collect(Collectors.toList()));
+        assertThat(parallel).isNotEmpty();
+    }
+}
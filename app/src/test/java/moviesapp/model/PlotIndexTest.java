@@ -0,0 +1,48 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.search.PlotIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlotIndexTest {
+
+    PlotIndex plotIndex;
+
+    @BeforeEach
+    void setup(){
+        plotIndex = new PlotIndex();
+        plotIndex.add(movie("1").title("Jaws").overview("A giant shark terrorizes the beach of a small island town.").popularity(40).build());
+        plotIndex.add(movie("2").title("The Meg").overview("A deep sea rescue team faces a prehistoric shark.").popularity(60).build());
+        plotIndex.add(movie("3").title("Finding Nemo").overview("A clownfish crosses the ocean to find his son, and meets sharks on the way.").popularity(80).build());
+        plotIndex.add(movie("4").title("Cast Away").overview("A man is stranded on an island after his plane crashes in the ocean.").popularity(50).build());
+    }
+
+    @Test
+    void testRanking(){
+        assertThat(plotIndex.search("shark island", 10)).extracting(Movie::id).containsExactly("1", "2", "4");
+        assertThat(plotIndex.search("ocean", 10)).extracting(Movie::id).containsExactly("4", "3");
+        assertThat(plotIndex.search("Nemo", 10)).extracting(Movie::id).containsExactly("3");
+        assertThat(plotIndex.search("shark island", 1)).extracting(Movie::id).containsExactly("1");
+    }
+
+    @Test
+    void testStopWordsAreIgnored(){
+        assertThat(PlotIndex.terms("The man on the Island")).containsExactly("man", "island");
+        assertThat(plotIndex.search("the and of", 10)).isEmpty();
+    }
+
+    @Test
+    void testIncrementalUpdates(){
+        plotIndex.remove("1");
+        assertThat(plotIndex.search("shark", 10)).extracting(Movie::id).containsExactly("2");
+
+        plotIndex.add(movie("2").title("The Meg").overview("A megalodon attacks an ocean lab.").popularity(60).build());
+        assertThat(plotIndex.search("shark", 10)).isEmpty();
+        assertThat(plotIndex.search("megalodon", 10)).extracting(Movie::id).containsExactly("2");
+        assertThat(plotIndex.size()).isEqualTo(3);
+    }
+}
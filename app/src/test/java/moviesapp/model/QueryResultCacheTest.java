@@ -0,0 +1,65 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.movies.QueryResultCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryResultCacheTest {
+
+    static List<Movie> movies(int count){
+        List<Movie> movies = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            movies.add(movie(String.valueOf(i)).title("Movie " + i).releaseDate((1990 + i % 30) + "-01-01")
+                    .voteAverage(i % 10).voteCount(1).build());
+        }
+        return movies;
+    }
+
+    @Test
+    void testHitsRefinementsAndInvalidation(){
+        List<Movie> movies = movies(300);
+        AtomicInteger scans = new AtomicInteger();
+        Function<MovieQuery, List<Movie>> search = query -> {
+            scans.incrementAndGet();
+            return movies.stream().filter(query::matches).collect(Collectors.toList());
+        };
+        QueryResultCache cache = new QueryResultCache(4);
+        MovieQuery broad = MovieQuery.compile("movie 1", "", null, "");
+        MovieQuery refined = MovieQuery.compile("movie 12", "200", null, "5");
+
+        List<Movie> broadResult = cache.find(broad, 0, search);
+        assertThat(cache.find(MovieQuery.compile("MOVIE 1", "", null, ""), 0, search)).isSameAs(broadResult);
+        assertThat(cache.find(refined, 0, search)).isEqualTo(movies.stream().filter(refined::matches).collect(Collectors.toList()));
+        assertThat(scans.get()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getRefinements()).isEqualTo(1);
+        assertThat(cache.getHitRatio()).isEqualTo(2.0 / 3);
+
+        cache.find(broad, 1, search);
+        assertThat(scans.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testCapacity(){
+        QueryResultCache cache = new QueryResultCache(2);
+        List<Movie> movies = movies(10);
+
+        for (String year : List.of("1990", "1991", "1992")) {
+            cache.find(MovieQuery.compile("", year, null, ""), 0, query -> movies);
+        }
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,70 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.MovieQuery;
+import moviesapp.model.search.ReleaseDateIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReleaseDateIndexTest {
+
+    static String[] randomReleaseDates(int count){
+        Random random = new Random(5);
+        String[] releaseDates = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            releaseDates[i] = i % 9 == 0 ? "" : String.format("%d-%02d-%02d", 1900 + random.nextInt(125), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        }
+        return releaseDates;
+    }
+
+    static int[] scan(String[] releaseDates, List<Integer> documents, MovieQuery query){
+        return documents.stream().filter(document -> query.matchesReleaseDate(releaseDates[document]))
+                .mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    @Test
+    void testRangesMatchScan(){
+        String[] releaseDates = randomReleaseDates(5000);
+        ReleaseDateIndex index = ReleaseDateIndex.of(releaseDates);
+        List<Integer> documents = IntStream.range(0, releaseDates.length).boxed().toList();
+
+        for (String years : List.of("1", "19", "199", "1999", "2024", "2050")) {
+            MovieQuery query = MovieQuery.compile("", years, new ArrayList<>(), "");
+            int[] expected = scan(releaseDates, documents, query);
+
+            assertThat(index.documentsInYears(query.getMinYear(), query.getMaxYear())).containsExactly(expected);
+            assertThat(index.countInYears(query.getMinYear(), query.getMaxYear())).isEqualTo(expected.length);
+        }
+        assertThat(index.size()).isEqualTo(5000 - 556);
+        assertThat(index.documentsInYears(1990, 1980)).isEmpty();
+    }
+
+    @Test
+    void testIncrementalUpdates(){
+        String[] releaseDates = randomReleaseDates(2000);
+        ReleaseDateIndex index = new ReleaseDateIndex();
+        List<Integer> documents = new ArrayList<>();
+
+        for (int document = 0; document < releaseDates.length; document++) {
+            index.add(document, releaseDates[document]);
+            documents.add(document);
+        }
+        for (int document = 0; document < releaseDates.length; document += 3) {
+            index.remove(document, releaseDates[document]);
+            documents.remove(Integer.valueOf(document));
+        }
+
+        MovieQuery query = MovieQuery.compile("", "198", new ArrayList<>(), "");
+        assertThat(index.documentsInYears(query.getMinYear(), query.getMaxYear()))
+                .containsExactly(scan(releaseDates, documents, query));
+        assertThat(index.add(1, "unknown")).isFalse();
+        assertThat(index.add(1, "2008")).isTrue();
+        assertThat(index.documentsInYears(2008, 2008)).contains(1);
+    }
+}
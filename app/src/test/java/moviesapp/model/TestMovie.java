@@ -0,0 +1,80 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+
+import java.util.List;
+
+/**
+ * Builds the movies of the tests: every field has a default value, so that a test only sets the fields it checks.
+ * The original title is the title unless it is set.
+ */
+class TestMovie {
+    private final String id;
+    private String title = "Title";
+    private String originalTitle = null;
+    private String overview = "overview";
+    private List<String> genres = List.of("18");
+    private String originalLanguage = "en";
+    private double popularity = 1;
+    private String releaseDate = "2008-07-16";
+    private double voteAverage = 7;
+    private int voteCount = 10;
+
+    private TestMovie(String id) {
+        this.id = id;
+    }
+
+    static TestMovie movie(String id) {
+        return new TestMovie(id);
+    }
+
+    TestMovie title(String title) {
+        this.title = title;
+        return this;
+    }
+
+    TestMovie originalTitle(String originalTitle) {
+        this.originalTitle = originalTitle;
+        return this;
+    }
+
+    TestMovie overview(String overview) {
+        this.overview = overview;
+        return this;
+    }
+
+    TestMovie genres(List<String> genres) {
+        this.genres = genres;
+        return this;
+    }
+
+    TestMovie originalLanguage(String originalLanguage) {
+        this.originalLanguage = originalLanguage;
+        return this;
+    }
+
+    TestMovie popularity(double popularity) {
+        this.popularity = popularity;
+        return this;
+    }
+
+    TestMovie releaseDate(String releaseDate) {
+        this.releaseDate = releaseDate;
+        return this;
+    }
+
+    TestMovie voteAverage(double voteAverage) {
+        this.voteAverage = voteAverage;
+        return this;
+    }
+
+    TestMovie voteCount(int voteCount) {
+        this.voteCount = voteCount;
+        return this;
+    }
+
+    Movie build() {
+        return new Movie(false, "null", genres, id, originalLanguage, originalTitle == null ? title : originalTitle,
+                overview, popularity, "null", releaseDate, title, false, voteAverage, voteCount);
+    }
+}
@@ -0,0 +1,98 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.LocalMovies;
+import moviesapp.model.movies.Movie;
+import moviesapp.model.movies.Movies;
+import moviesapp.model.search.TextNormalizer;
+import moviesapp.model.search.TitleIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TitleIndexTest {
+
+    TitleIndex titleIndex;
+
+    @BeforeEach
+    void setup(){
+        titleIndex = new TitleIndex();
+        titleIndex.add(movie("1").title("Amélie").originalTitle("Le Fabuleux Destin d'Amélie Poulain").build());
+        titleIndex.add(movie("2").title("The Dark Knight").build());
+        titleIndex.add(movie("3").title("The Knight Before Christmas").build());
+    }
+
+    @Test
+    void testNormalize(){
+        assertThat(TextNormalizer.normalize("AMÉLIE Straße")).isEqualTo("amelie strasse");
+        assertThat(TextNormalizer.tokenize("Le Fabuleux Destin d'Amélie")).containsExactly("le", "fabuleux", "destin", "d", "amelie");
+    }
+
+    @Test
+    void testWordsAndPrefix(){
+        assertThat(titleIndex.search("amelie")).extracting(Movie::id).containsExactly("1");
+        assertThat(titleIndex.search("POULAIN ame")).extracting(Movie::id).containsExactly("1");
+        assertThat(titleIndex.search("knig")).extracting(Movie::id).containsExactlyInAnyOrder("2", "3");
+        assertThat(titleIndex.search("knight dar")).extracting(Movie::id).containsExactly("2");
+        assertThat(titleIndex.search("batman")).isEmpty();
+        assertThat(titleIndex.search("  ")).isEmpty();
+    }
+
+    @Test
+    void testPhrase(){
+        assertThat(titleIndex.search("\"the knight\"")).extracting(Movie::id).containsExactly("3");
+        assertThat(titleIndex.search("\"dark kn\"")).extracting(Movie::id).containsExactly("2");
+        assertThat(titleIndex.search("\"knight dark\"")).isEmpty();
+    }
+
+    @Test
+    void testMatchesWithoutIndex(){
+        List<Movie> movies = titleIndex.search("amelie");
+        movies.addAll(titleIndex.search("knight"));
+
+        for (String text : List.of("amelie", "POULAIN ame", "knig", "knight dar", "batman", "ark", "\"the knight\"", "\"knight dark\"")) {
+            for (Movie movie : movies) {
+                assertThat(TitleIndex.matches(text, movie.title(), movie.originalTitle()))
+                        .as(text + " in " + movie.title()).isEqualTo(titleIndex.search(text).contains(movie));
+            }
+        }
+    }
+
+    @Test
+    void testRefines(){
+        assertThat(TitleIndex.refines("the dark knight", "dark")).isTrue();
+        assertThat(TitleIndex.refines("dark kni", "dark k")).isTrue();
+        assertThat(TitleIndex.refines("movie 12", "movie 1")).isTrue();
+        assertThat(TitleIndex.refines("dark", "ark")).isFalse();
+        assertThat(TitleIndex.refines("knight", "dark")).isFalse();
+        assertThat(TitleIndex.refines("dar", "dark")).isFalse();
+        assertThat(TitleIndex.refines("\"dark knight\"", "\"dark\"")).isFalse();
+    }
+
+    @Test
+    void testRemoveAndReplace(){
+        titleIndex.remove("2");
+        assertThat(titleIndex.search("dark")).isEmpty();
+        assertThat(titleIndex.size()).isEqualTo(2);
+
+        titleIndex.add(movie("3").title("Batman Begins").build());
+        assertThat(titleIndex.search("knight")).isEmpty();
+        assertThat(titleIndex.search("bat")).extracting(Movie::id).containsExactly("3");
+    }
+
+    @Test
+    void testLocalMoviesCachedPages(){
+        LocalMovies localMovies = new LocalMovies(1);
+        Movie shared = movie("-1").title("Shared Movie").build();
+
+        localMovies.cachePage("page1", new Movies(List.of(shared, movie("-2").title("First Page").build())));
+        localMovies.cachePage("page2", new Movies(List.of(shared)));
+
+        assertThat(localMovies.contains("-2")).isFalse();
+        assertThat(localMovies.searchTitles("shared").getMovieList()).containsExactly(shared);
+        assertThat(localMovies.findMovies("first", "", List.of(), "").isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,60 @@
+package moviesapp.model;
+
+import moviesapp.model.movies.Movie;
+import moviesapp.model.search.FuzzyTitleMatcher;
+import moviesapp.model.search.TrigramIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static moviesapp.model.TestMovie.movie;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrigramIndexTest {
+
+    TrigramIndex trigramIndex;
+    List<Movie> movies;
+
+    @BeforeEach
+    void setup(){
+        movies = List.of(
+                movie("1").title("The Dark Knight").popularity(80).build(),
+                movie("2").title("The Dark Knight Rises").popularity(95).build(),
+                movie("3").title("Knight and Day").popularity(20).build(),
+                movie("4").title("Amélie").popularity(40).build());
+        trigramIndex = new TrigramIndex();
+        movies.forEach(trigramIndex::add);
+    }
+
+    @Test
+    void testDistance(){
+        assertThat(FuzzyTitleMatcher.distance("dark", "the dark knight", 1)).isEqualTo(0);
+        assertThat(FuzzyTitleMatcher.distance("drak", "the dark knight", 1)).isEqualTo(1);
+        assertThat(FuzzyTitleMatcher.distance("dork knihgt", "the dark knight", 2)).isEqualTo(2);
+        assertThat(FuzzyTitleMatcher.distance("batman", "the dark knight", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void testSearchWithTypos(){
+        assertThat(trigramIndex.search("dark knihgt")).extracting(Movie::id).containsExactly("2", "1");
+        assertThat(trigramIndex.search("AMELIE")).extracting(Movie::id).containsExactly("4");
+        assertThat(trigramIndex.search("knight")).extracting(Movie::id).containsExactly("2", "1", "3");
+        assertThat(trigramIndex.search("batman")).isEmpty();
+        assertThat(trigramIndex.search("kn")).isEmpty();
+    }
+
+    @Test
+    void testSimilarityBeforePopularity(){
+        assertThat(trigramIndex.search("knight and dya")).extracting(Movie::id).containsExactly("3");
+        assertThat(trigramIndex.search("dark knight rises")).extracting(Movie::id).first().isEqualTo("2");
+
+        trigramIndex.remove("2");
+        assertThat(trigramIndex.search("dark knigt")).extracting(Movie::id).containsExactly("1");
+    }
+
+    @Test
+    void testScanMatchesIndex(){
+        assertThat(FuzzyTitleMatcher.rank("dark knihgt", movies)).isEqualTo(trigramIndex.search("dark knihgt"));
+    }
+}
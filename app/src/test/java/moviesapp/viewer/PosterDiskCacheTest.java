@@ -0,0 +1,61 @@
+package moviesapp.viewer;
+
+import moviesapp.viewer.images.PosterDiskCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PosterDiskCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void testReadAndWrite(){
+        PosterDiskCache diskCache = new PosterDiskCache(cacheDirectory.toString(), 1000);
+        assertThat(diskCache.read("/poster.jpg", "/w342")).isNull();
+
+        diskCache.write("/poster.jpg", "/w342", new byte[]{1, 2, 3});
+        assertThat(diskCache.read("/poster.jpg", "/w342")).containsExactly(1, 2, 3);
+        assertThat(diskCache.read("/poster.jpg", "/w500")).isNull();
+        assertThat(diskCache.getCurrentBytes()).isEqualTo(3);
+
+        assertThat(new PosterDiskCache(cacheDirectory.toString(), 1000).read("/poster.jpg", "/w342")).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void testEvictionOverQuota(){
+        PosterDiskCache diskCache = new PosterDiskCache(cacheDirectory.toString(), 250);
+        diskCache.write("/first.jpg", "/w342", new byte[100]);
+        diskCache.write("/second.jpg", "/w342", new byte[100]);
+        diskCache.read("/first.jpg", "/w342");
+        diskCache.write("/third.jpg", "/w342", new byte[100]);
+
+        assertThat(diskCache.getCurrentBytes()).isLessThanOrEqualTo(250);
+        assertThat(diskCache.read("/third.jpg", "/w342")).isNotNull();
+    }
+
+    @Test
+    void testFailedWriteLeavesNoTemporaryFile() throws IOException {
+        PosterDiskCache diskCache = new PosterDiskCache(cacheDirectory.toString(), 1000);
+        diskCache.write("/poster.jpg", "/w342", new byte[]{1, 2, 3});
+
+        File[] cachedFiles = cacheDirectory.toFile().listFiles();
+        assertThat(cachedFiles).hasSize(1);
+        Files.delete(cachedFiles[0].toPath());
+        Files.createDirectories(cachedFiles[0].toPath().resolve("blocking"));
+        PosterDiskCache blockedCache = new PosterDiskCache(cacheDirectory.toString(), 100_000);
+        long bytesBeforeWrite = blockedCache.getCurrentBytes();
+
+        blockedCache.write("/poster.jpg", "/w342", new byte[]{4, 5, 6});
+
+        assertThat(cacheDirectory.toFile().list((dir, name) -> name.endsWith(".tmp"))).isEmpty();
+        assertThat(blockedCache.getCurrentBytes()).isEqualTo(bytesBeforeWrite);
+    }
+}